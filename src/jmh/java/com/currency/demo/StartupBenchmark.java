@@ -0,0 +1,140 @@
+package com.currency.demo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching the application to its first successful request (GET /api/currencies).
+ * {@code jar} is the regular build: Boot fat jar, Hibernate ddl-auto and JPA seeding.
+ * The other modes run target/fast, built by {@code mvn -Pfaststart -DskipTests package}: the fast profile
+ * (schema and seed scripts), then Spring AOT, then AOT plus the class-data-sharing archive.
+ * Each invocation is a fresh JVM; application output goes to target/startup-benchmark/.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    @Param({"jar", "fast", "fast-aot", "fast-aot-cds"})
+    private String mode;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+    private Path target;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        target = Path.of(System.getProperty("user.dir"), "target");
+        for (Path required : List.of(target.resolve("app.jar"), target.resolve("fast/app-fast.jar"),
+                target.resolve("fast/app.jsa"))) {
+            if (!Files.exists(required)) {
+                throw new IllegalStateException(required + " is missing; run mvn -Pfaststart -DskipTests package first");
+            }
+        }
+        Files.createDirectories(target.resolve("startup-benchmark"));
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws Exception {
+        int port = freePort();
+        boolean fast = mode.startsWith("fast");
+        // The CDS archive records the class path as given, so fast modes run from target/fast with relative paths
+        process = new ProcessBuilder(command(port))
+                .directory(fast ? target.resolve("fast").toFile() : null)
+                .redirectErrorStream(true)
+                .redirectOutput(target.resolve("startup-benchmark/" + mode + ".log").toFile())
+                .start();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/currencies"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(mode + " exited with " + process.exitValue()
+                        + "; see target/startup-benchmark/" + mode + ".log");
+            }
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException(mode + " did not answer within " + STARTUP_TIMEOUT);
+    }
+
+    /**
+     * Stop the instance before the next launch so they never compete for CPU
+     */
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private List<String> command(int port) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        if (mode.endsWith("-cds")) {
+            command.add("-XX:SharedArchiveFile=app.jsa");
+        }
+        if (mode.startsWith("fast-aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        if (mode.startsWith("fast")) {
+            command.add("-Dspring.profiles.active=fast");
+        }
+        // Nothing listens on the discard port, so the price poller fails fast instead of reaching Coindesk
+        command.add("-Dcoindesk.api-url=http://127.0.0.1:9/v1/bpi/currentprice.json");
+        command.add("-Dserver.port=" + port);
+        command.add("-jar");
+        command.add(mode.startsWith("fast") ? "app-fast.jar" : target.resolve("app.jar").toString());
+        return command;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
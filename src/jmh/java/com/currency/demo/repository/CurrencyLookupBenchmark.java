@@ -0,0 +1,76 @@
+package com.currency.demo.repository;
+
+import com.currency.demo.DemoApplication;
+import com.currency.demo.model.Currency;
+import com.currency.demo.service.CurrencyCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Currency lookups by code against the real H2 database, through the Hibernate caches and the in-memory catalog.
+ * Run with -prof gc to get gc.alloc.rate.norm (bytes allocated per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyLookupBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private CurrencyRepository currencyRepository;
+    private CurrencyCatalog currencyCatalog;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("test")
+                .run("--spring.main.web-application-type=none",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.currency.demo=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN");
+        currencyRepository = context.getBean(CurrencyRepository.class);
+        currencyCatalog = context.getBean(CurrencyCatalog.class);
+
+        currencyRepository.saveAll(List.of(new Currency("USD", "美金"), new Currency("EUR", "歐元"),
+                new Currency("JPY", "日圓"), new Currency("GBP", "英鎊")));
+        currencyCatalog.reload();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Repository lookup; served by the query and second-level caches after the first call
+     */
+    @Benchmark
+    public Currency findByCode() {
+        return currencyRepository.findByCode("JPY");
+    }
+
+    /**
+     * Lookup in the immutable in-memory catalog used by the transform
+     */
+    @Benchmark
+    public String catalogGetName() {
+        return currencyCatalog.getEntries().getName("JPY");
+    }
+}
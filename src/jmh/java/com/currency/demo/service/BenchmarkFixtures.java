@@ -0,0 +1,158 @@
+package com.currency.demo.service;
+
+import ch.qos.logback.classic.Level;
+import com.currency.demo.model.Currency;
+import com.currency.demo.model.FxRate;
+import com.currency.demo.repository.CurrencyRepository;
+import com.currency.demo.repository.FxRateRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Builds a CoindeskService wired to an in-memory upstream and repository, so benchmarks measure
+ * only the service's own work.
+ */
+final class BenchmarkFixtures {
+
+    static final byte[] COINDESK_PAYLOAD = """
+            {"time":{"updated":"Mar 29, 2025 11:53:00 UTC","updatedISO":"2025-03-29T11:53:00+00:00",\
+            "updateduk":"Mar 29, 2025 at 11:53 GMT"},\
+            "disclaimer":"This data was produced from the CoinDesk Bitcoin Price Index (USD).",\
+            "chartName":"Bitcoin","bpi":{\
+            "USD":{"code":"USD","symbol":"&#36;","rate":"57,231.4983","description":"United States Dollar","rate_float":57231.4983},\
+            "GBP":{"code":"GBP","symbol":"&pound;","rate":"42,345.8722","description":"British Pound Sterling","rate_float":42345.8722},\
+            "EUR":{"code":"EUR","symbol":"&euro;","rate":"49,876.1232","description":"Euro","rate_float":49876.1232}}}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    static final List<Currency> CURRENCIES = List.of(
+            currency(1, "USD", "美金"), currency(2, "EUR", "歐元"), currency(3, "JPY", "日圓"),
+            currency(4, "GBP", "英鎊"), currency(5, "CNY", "人民幣"), currency(6, "HKD", "港幣"),
+            currency(7, "AUD", "澳幣"), currency(8, "CAD", "加幣"), currency(9, "SGD", "新加坡幣"),
+            currency(10, "CHF", "瑞士法郎"));
+
+    private static final Instant FX_AS_OF = Instant.parse("2025-03-29T00:00:00Z");
+
+    static final List<FxRate> FX_RATES = List.of(
+            new FxRate("JPY", 0.009, FX_AS_OF), new FxRate("CNY", 0.155, FX_AS_OF),
+            new FxRate("HKD", 0.128, FX_AS_OF), new FxRate("TWD", 0.036, FX_AS_OF),
+            new FxRate("AUD", 0.75, FX_AS_OF), new FxRate("CAD", 0.80, FX_AS_OF),
+            new FxRate("SGD", 0.74, FX_AS_OF), new FxRate("CHF", 1.09, FX_AS_OF));
+
+    private BenchmarkFixtures() {
+    }
+
+    static CoindeskService coindeskService(ObjectMapper objectMapper, CurrencyCatalog currencyCatalog) {
+        CoindeskService service = new CoindeskService();
+        ReflectionTestUtils.setField(service, "apiUrl", URI.create("http://localhost/v1/bpi/currentprice.json"));
+        CoindeskMetrics metrics = new CoindeskMetrics(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "priceAggregator",
+                priceAggregator(new StubRestTemplate(), new CoindeskResponseParser(objectMapper), metrics));
+        ReflectionTestUtils.setField(service, "currencyCatalog", currencyCatalog);
+        ReflectionTestUtils.setField(service, "upstreamCircuitBreaker", CircuitBreaker.ofDefaults("benchmark"));
+        ReflectionTestUtils.setField(service, "metrics", metrics);
+        ReflectionTestUtils.setField(service, "fxRateService", fxRateService(objectMapper));
+        return service;
+    }
+
+    /**
+     * A service whose upstream call always fails, with the circuit breaker disabled so every call reaches it
+     */
+    static CoindeskService failingCoindeskService(ObjectMapper objectMapper, CurrencyCatalog currencyCatalog) {
+        CoindeskService service = coindeskService(objectMapper, currencyCatalog);
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("benchmark-failing");
+        circuitBreaker.transitionToDisabledState();
+        ReflectionTestUtils.setField(service, "priceAggregator", priceAggregator(new FailingRestTemplate(),
+                new CoindeskResponseParser(objectMapper), new CoindeskMetrics(new SimpleMeterRegistry())));
+        ReflectionTestUtils.setField(service, "upstreamCircuitBreaker", circuitBreaker);
+        return service;
+    }
+
+    private static PriceAggregator priceAggregator(RestTemplate restTemplate, CoindeskResponseParser responseParser,
+                                                   CoindeskMetrics metrics) {
+        PriceProvider provider = new HttpPriceProvider("benchmark", URI.create("http://localhost/v1/bpi/currentprice.json"),
+                1.0, restTemplate, responseParser);
+        return new PriceAggregator(List.of(provider), 1, Duration.ofSeconds(2), metrics);
+    }
+
+    static FxRateService fxRateService(ObjectMapper objectMapper) {
+        FxRateRepository repository = mock(FxRateRepository.class);
+        when(repository.findAll(any(Sort.class))).thenReturn(FX_RATES);
+        FxRateService fxRateService = new FxRateService(repository, null, new DefaultResourceLoader(), objectMapper,
+                "classpath:fx-rates.json", 0.5);
+        fxRateService.reload();
+        return fxRateService;
+    }
+
+    static CurrencyCatalog currencyCatalog() {
+        CurrencyRepository repository = mock(CurrencyRepository.class);
+        when(repository.findAll()).thenReturn(CURRENCIES);
+        CurrencyCatalog catalog = new CurrencyCatalog(repository);
+        catalog.reload();
+        return catalog;
+    }
+
+    /**
+     * Keep application logging out of the measurements
+     */
+    static void quietLogging() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    private static Currency currency(long id, String code, String name) {
+        Currency currency = new Currency(code, name);
+        currency.setId(id);
+        return currency;
+    }
+
+    /**
+     * Fails every call the way an unreachable Coindesk does
+     */
+    private static final class FailingRestTemplate extends RestTemplate {
+        @Override
+        public <T> T execute(URI url, HttpMethod method, RequestCallback requestCallback,
+                             ResponseExtractor<T> responseExtractor) throws RestClientException {
+            throw new ResourceAccessException("I/O error on GET request for \"" + url + "\": Connection refused");
+        }
+    }
+
+    /**
+     * Answers every call with the canned Coindesk payload, still going through the real response parser
+     */
+    private static final class StubRestTemplate extends RestTemplate {
+        @Override
+        public <T> T execute(URI url, HttpMethod method, RequestCallback requestCallback,
+                             ResponseExtractor<T> responseExtractor) throws RestClientException {
+            try {
+                return responseExtractor.extractData(new MockClientHttpResponse(COINDESK_PAYLOAD, HttpStatus.OK));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.currency.demo.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one conversion lookup: the ordinal-indexed cross-rate table against the nested maps
+ * of the transformed payload. With -prof gc the table path should report 0 bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+    private static final List<String> CODES = List.of("USD", "EUR", "JPY", "GBP", "CNY", "HKD", "AUD", "CAD",
+            "SGD", "CHF");
+
+    private ConversionTable table;
+    private Map<String, Object> currencies;
+    private String from = "EUR";
+    private String to = "jpy";
+    private double amount = 123.45;
+
+    @Setup
+    public void setup() {
+        double[] btcRates = new double[CODES.size()];
+        currencies = new HashMap<>();
+        for (int i = 0; i < btcRates.length; i++) {
+            btcRates[i] = 10_000.0 * (i + 1);
+            Map<String, Object> currency = new HashMap<>();
+            currency.put("code", CODES.get(i));
+            currency.put("rate", btcRates[i]);
+            currencies.put(CODES.get(i), currency);
+        }
+        table = new ConversionTable(1, Instant.now(), CurrencyCodeIndex.of(CODES), btcRates,
+                new boolean[CODES.size()]);
+    }
+
+    @Benchmark
+    public double table() {
+        return table.convert(table.ordinalOf(from), table.ordinalOf(to), amount);
+    }
+
+    /**
+     * What a client does today with the transformed payload
+     */
+    @Benchmark
+    public double nestedMaps() {
+        Map<String, Object> fromCurrency = (Map<String, Object>) currencies.get(from);
+        Map<String, Object> toCurrency = (Map<String, Object>) currencies.get(to.toUpperCase());
+        return amount * (Double) toCurrency.get("rate") / (Double) fromCurrency.get("rate");
+    }
+}
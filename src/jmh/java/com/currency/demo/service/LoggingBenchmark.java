@@ -0,0 +1,120 @@
+package com.currency.demo.service;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.currency.demo.model.PriceSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of application logging.
+ * {@code dev} is the default configuration: DEBUG for the application, written synchronously on the calling thread.
+ * {@code prod} matches the prod profile: INFO, written through a bounded non-blocking AsyncAppender.
+ * Output goes to target/logging-benchmark.log rather than the console so it does not interleave with JMH's.
+ * {@code failureLogIntervalMs=0} logs every upstream failure, as before failure logging was sampled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"dev", "prod"})
+    private String logging;
+
+    @Param({"0", "60000"})
+    private long failureLogIntervalMs;
+
+    private CoindeskService coindeskService;
+    private CoindeskService failingCoindeskService;
+    private Appender<ILoggingEvent> appender;
+
+    @Setup
+    public void setup() {
+        appender = configureLogging("prod".equals(logging));
+        ObjectMapper objectMapper = new ObjectMapper();
+        CurrencyCatalog currencyCatalog = BenchmarkFixtures.currencyCatalog();
+        coindeskService = BenchmarkFixtures.coindeskService(objectMapper, currencyCatalog);
+        failingCoindeskService = BenchmarkFixtures.failingCoindeskService(objectMapper, currencyCatalog);
+        failingCoindeskService.setFailureLogIntervalMs(failureLogIntervalMs);
+    }
+
+    @TearDown
+    public void tearDown() {
+        appender.stop();
+    }
+
+    /**
+     * Successful request: upstream call, parse and transform with their log statements
+     */
+    @Benchmark
+    public PriceSnapshot getTransformedData() {
+        return coindeskService.getTransformedData();
+    }
+
+    /**
+     * Request while Coindesk is failing: failure logging plus the fallback
+     */
+    @Benchmark
+    public Object upstreamFailure() {
+        return failingCoindeskService.getOriginalData();
+    }
+
+    private static Appender<ILoggingEvent> configureLogging(boolean prod) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.setLevel(Level.INFO);
+        context.getLogger("com.currency.demo").setLevel(prod ? Level.INFO : Level.DEBUG);
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName("FILE");
+        file.setFile("target/logging-benchmark.log");
+        file.setAppend(false);
+        file.setEncoder(encoder);
+        file.start();
+        if (!prod) {
+            root.addAppender(file);
+            return file;
+        }
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC_FILE");
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(file);
+        async.start();
+        root.addAppender(async);
+        return async;
+    }
+}
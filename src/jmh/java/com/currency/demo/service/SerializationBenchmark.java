@@ -0,0 +1,54 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.PriceSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the transformed payload and parsing of the Coindesk payload.
+ * Run with -prof gc to get gc.alloc.rate.norm (bytes allocated per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private CoindeskResponseParser responseParser;
+    private PriceSnapshot transformedData;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.quietLogging();
+        objectMapper = new ObjectMapper();
+        responseParser = new CoindeskResponseParser(objectMapper);
+        transformedData = BenchmarkFixtures.coindeskService(objectMapper, BenchmarkFixtures.currencyCatalog())
+                .getTransformedData();
+    }
+
+    @Benchmark
+    public byte[] serializeTransformed() throws IOException {
+        return objectMapper.writeValueAsBytes(transformedData);
+    }
+
+    @Benchmark
+    public Object parseCoindeskPayload() throws IOException {
+        return responseParser.parse(new ByteArrayInputStream(BenchmarkFixtures.COINDESK_PAYLOAD));
+    }
+}
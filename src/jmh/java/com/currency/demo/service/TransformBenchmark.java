@@ -0,0 +1,81 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.CoindeskResponse;
+import com.currency.demo.model.CurrencyQuote;
+import com.currency.demo.model.PriceSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the price transform and its parts.
+ * Run with -prof gc to get gc.alloc.rate.norm (bytes allocated per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformBenchmark {
+
+    private CoindeskService coindeskService;
+    private CurrencyCatalog.Entries catalog;
+    private CoindeskResponse originalData;
+    private SortedMap<String, CurrencyQuote> transformedCurrencies;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.quietLogging();
+        CurrencyCatalog currencyCatalog = BenchmarkFixtures.currencyCatalog();
+        coindeskService = BenchmarkFixtures.coindeskService(new ObjectMapper(), currencyCatalog);
+        catalog = currencyCatalog.getEntries();
+        originalData = coindeskService.getOriginalData();
+
+        // Currencies as they are before the missing ones are added
+        transformedCurrencies = new TreeMap<>();
+        originalData.getBpi().forEach((code, currency) -> transformedCurrencies.put(code,
+                CurrencyQuote.live(code, currency.getRateFloat(), catalog.getName(code))));
+    }
+
+    /**
+     * Full request path: stubbed upstream call, streaming parse and transform
+     */
+    @Benchmark
+    public PriceSnapshot getTransformedData() {
+        return coindeskService.getTransformedData();
+    }
+
+    /**
+     * Transform of already-parsed data
+     */
+    @Benchmark
+    public PriceSnapshot transform() {
+        return coindeskService.transform(originalData, catalog);
+    }
+
+    @Benchmark
+    public Map<String, CurrencyQuote> addMissingCurrencies() {
+        Map<String, CurrencyQuote> currencies = new TreeMap<>(transformedCurrencies);
+        coindeskService.addMissingCurrencies(currencies, catalog);
+        return currencies;
+    }
+
+    @Benchmark
+    public String formatUpdateTime() {
+        return CoindeskService.formatUpdateTime("Mar 29, 2025 11:53:00 UTC");
+    }
+}
@@ -0,0 +1,131 @@
+package com.currency.demo.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Coindesk API serving a canned current-price payload.
+ * Each response is delayed by {@code latency ± jitter} and fails with a 503 at the configured rate,
+ * so the application's upstream path can be loaded without touching the real service.
+ */
+public final class CoindeskStub implements AutoCloseable {
+
+    static final String PATH = "/v1/bpi/currentprice.json";
+
+    private final Duration latency;
+    private final Duration jitter;
+    private final double failureRate;
+    private final byte[] payload;
+    private final HttpServer server;
+    // Each request sleeps on its own virtual thread, so latency never queues requests behind each other
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public CoindeskStub(int port, Duration latency, Duration jitter, double failureRate) {
+        if (failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("failureRate must be between 0 and 1");
+        }
+        this.latency = latency;
+        this.jitter = jitter;
+        this.failureRate = failureRate;
+        this.payload = loadPayload();
+        try {
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.setExecutor(executor);
+        server.createContext(PATH, this::handle);
+    }
+
+    public CoindeskStub start() {
+        server.start();
+        return this;
+    }
+
+    /**
+     * URL to set as coindesk.api-url
+     */
+    public URI getUrl() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + PATH);
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delayMs = latency.toMillis();
+            if (!jitter.isZero()) {
+                delayMs += random.nextLong(-jitter.toMillis(), jitter.toMillis() + 1);
+            }
+            if (delayMs > 0) {
+                Thread.sleep(delayMs);
+            }
+            if (random.nextDouble() < failureRate) {
+                failures.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, payload.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(payload);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] loadPayload() {
+        try (InputStream in = CoindeskStub.class.getResourceAsStream("/coindesk-currentprice.json")) {
+            if (in == null) {
+                throw new IllegalStateException("coindesk-currentprice.json not found on the classpath");
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Run the stub on its own, e.g. to point a locally started application at it:
+     * {@code CoindeskStub [port] [latencyMs] [jitterMs] [failureRate]}
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        Duration latency = Duration.ofMillis(args.length > 1 ? Long.parseLong(args[1]) : 50);
+        Duration jitter = Duration.ofMillis(args.length > 2 ? Long.parseLong(args[2]) : 20);
+        double failureRate = args.length > 3 ? Double.parseDouble(args[3]) : 0.0;
+        CoindeskStub stub = new CoindeskStub(port, latency, jitter, failureRate).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        System.out.println("Coindesk stub listening on " + stub.getUrl());
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,109 @@
+package com.currency.demo.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: requests are issued on a fixed schedule regardless of how fast the server answers.
+ * Latency is measured from each request's scheduled send time rather than its actual one, so a stalled server
+ * shows up in the percentiles instead of silently lowering the request rate (coordinated omission).
+ */
+public final class LoadDriver {
+
+    // Latencies are recorded in microseconds, up to one minute, with 3 significant digits
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+
+    public LoadDriver(HttpClient client, Duration requestTimeout) {
+        this.client = client;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Send GET requests to {@code uri} at {@code ratePerSecond}, first for the warmup period (not recorded),
+     * then for the measured duration. Waits for all measured requests to complete before returning.
+     */
+    public Result run(String name, URI uri, int ratePerSecond, Duration warmup, Duration duration) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("ratePerSecond must be positive");
+        }
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(requestTimeout).GET().build();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long warmupRequests = warmup.toNanos() / intervalNanos;
+        long measuredRequests = duration.toNanos() / intervalNanos;
+
+        Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        ConcurrentLinkedQueue<CompletableFuture<?>> inFlight = new ConcurrentLinkedQueue<>();
+
+        long start = System.nanoTime();
+        long measureStart = start + warmupRequests * intervalNanos;
+        for (long i = 0; i < warmupRequests + measuredRequests; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = i >= warmupRequests;
+            CompletableFuture<?> call = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        if (!measured) {
+                            return null;
+                        }
+                        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                        recorder.recordValue(Math.min(latencyMicros, MAX_LATENCY_MICROS));
+                        if (failure != null || response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        } else {
+                            completed.incrementAndGet();
+                        }
+                        return null;
+                    });
+            if (measured) {
+                inFlight.add(call);
+            }
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        Duration elapsed = Duration.ofNanos(Math.max(System.nanoTime() - measureStart, duration.toNanos()));
+        return new Result(name, ratePerSecond, recorder.getIntervalHistogram(), completed.get(), errors.get(), elapsed);
+    }
+
+    /**
+     * Latency distribution and counts of one measured run
+     */
+    public record Result(String name, int targetRate, Histogram histogram, long completed, long errors,
+                         Duration elapsed) {
+
+        /**
+         * Successful responses per second over the measured window
+         */
+        public double throughput() {
+            return completed * 1_000_000_000.0 / elapsed.toNanos();
+        }
+
+        public double percentileMillis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        public String summary() {
+            return String.format("%s: target %d req/s, achieved %.1f req/s, errors %d, "
+                            + "p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms",
+                    name, targetRate, throughput(), errors, percentileMillis(50), percentileMillis(90),
+                    percentileMillis(99), percentileMillis(99.9), histogram.getMaxValue() / 1000.0);
+        }
+    }
+}
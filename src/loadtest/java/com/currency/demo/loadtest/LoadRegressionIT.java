@@ -0,0 +1,160 @@
+package com.currency.demo.loadtest;
+
+import com.currency.demo.DemoApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end load test against the full application, with Coindesk replaced by a local stub.
+ * Each endpoint is driven at a fixed arrival rate and its p99 latency and throughput are compared
+ * with the stored baseline; run with -Dloadtest.update-baseline=true to record a new baseline instead.
+ */
+@SpringBootTest(classes = DemoApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                // Refresh often so the stub's latency and failures keep feeding through the snapshot path
+                "coindesk.snapshot.refresh-interval-ms=1000",
+                "coindesk.snapshot.max-staleness-ms=5000",
+                // Request logging would dominate the measurements
+                "logging.level.root=WARN",
+                "logging.level.org.springframework.web=WARN",
+                "logging.level.org.springframework.web.servlet.mvc.method.annotation=WARN",
+                "logging.level.com.currency.demo=WARN",
+                "spring.jpa.show-sql=false"
+        })
+public class LoadRegressionIT {
+
+    private static final CoindeskStub STUB = new CoindeskStub(0,
+            Duration.ofMillis(Long.getLong("loadtest.stub.latency-ms", 50)),
+            Duration.ofMillis(Long.getLong("loadtest.stub.jitter-ms", 20)),
+            Double.parseDouble(System.getProperty("loadtest.stub.failure-rate", "0.05"))).start();
+
+    private static final int RATE = Integer.getInteger("loadtest.rate", 200);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 15));
+    private static final double P99_TOLERANCE = Double.parseDouble(System.getProperty("loadtest.p99-tolerance", "1.0"));
+    private static final double THROUGHPUT_TOLERANCE =
+            Double.parseDouble(System.getProperty("loadtest.throughput-tolerance", "0.1"));
+    private static final boolean UPDATE_BASELINE = Boolean.getBoolean("loadtest.update-baseline");
+    private static final Path REPORT_DIR = Path.of(System.getProperty("loadtest.report-dir", "target/loadtest"));
+
+    @LocalServerPort
+    private int port;
+
+    private final LoadDriver driver = new LoadDriver(HttpClient.newHttpClient(), Duration.ofSeconds(10));
+
+    @DynamicPropertySource
+    static void coindeskStub(DynamicPropertyRegistry registry) {
+        registry.add("coindesk.api-url", () -> STUB.getUrl().toString());
+    }
+
+    @AfterAll
+    static void stopStub() {
+        System.out.println("Coindesk stub served " + STUB.getRequestCount() + " requests, "
+                + STUB.getFailureCount() + " failed");
+        STUB.close();
+    }
+
+    /**
+     * Load test for the transformed price endpoint
+     */
+    @Test
+    public void testPriceEndpoint() throws IOException {
+        check(driver.run("price", endpoint("/api/bitcoin/price"), RATE, WARMUP, DURATION));
+    }
+
+    /**
+     * Load test for the currency list endpoint
+     */
+    @Test
+    public void testCurrencyEndpoint() throws IOException {
+        check(driver.run("currencies", endpoint("/api/currencies"), RATE, WARMUP, DURATION));
+    }
+
+    private URI endpoint(String path) {
+        return URI.create("http://127.0.0.1:" + port + path);
+    }
+
+    private void check(LoadDriver.Result result) throws IOException {
+        System.out.println(result.summary());
+        writeReport(result);
+        assertEquals(0, result.errors(), "Requests should not fail under load");
+
+        Properties baseline = loadBaseline();
+        String p99Key = result.name() + ".p99-ms";
+        String throughputKey = result.name() + ".throughput";
+        if (UPDATE_BASELINE) {
+            baseline.setProperty(p99Key, String.format("%.2f", result.percentileMillis(99)));
+            baseline.setProperty(throughputKey, String.format("%.1f", result.throughput()));
+            storeBaseline(baseline);
+            return;
+        }
+        assertTrue(baseline.containsKey(p99Key) && baseline.containsKey(throughputKey),
+                "No baseline for " + result.name() + "; record one with -Dloadtest.update-baseline=true");
+
+        double p99Limit = Double.parseDouble(baseline.getProperty(p99Key)) * (1 + P99_TOLERANCE);
+        double throughputFloor = Double.parseDouble(baseline.getProperty(throughputKey)) * (1 - THROUGHPUT_TOLERANCE);
+        assertTrue(result.percentileMillis(99) <= p99Limit, String.format(
+                "%s p99 regressed: %.2f ms > %.2f ms allowed", result.name(), result.percentileMillis(99), p99Limit));
+        assertTrue(result.throughput() >= throughputFloor, String.format(
+                "%s throughput regressed: %.1f req/s < %.1f req/s required",
+                result.name(), result.throughput(), throughputFloor));
+    }
+
+    /**
+     * Write the full percentile distribution (HdrHistogram .hgrm format) for plotting and comparison
+     */
+    private void writeReport(LoadDriver.Result result) throws IOException {
+        Files.createDirectories(REPORT_DIR);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(REPORT_DIR.resolve(result.name() + ".hgrm")))) {
+            result.histogram().outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static Properties loadBaseline() throws IOException {
+        Properties baseline = new Properties();
+        Path file = baselineFile();
+        if (file != null && Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                baseline.load(in);
+            }
+        } else {
+            try (InputStream in = LoadRegressionIT.class.getResourceAsStream("/loadtest-baseline.properties")) {
+                if (in != null) {
+                    baseline.load(in);
+                }
+            }
+        }
+        return baseline;
+    }
+
+    private static void storeBaseline(Properties baseline) throws IOException {
+        Path file = baselineFile();
+        assertNotNull(file, "Set loadtest.baseline to the baseline file to update it");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            baseline.store(out, "Load test baseline (" + RATE + " req/s, " + DURATION.toSeconds() + "s)");
+        }
+        System.out.println("Updated baseline " + file);
+    }
+
+    private static Path baselineFile() {
+        String path = System.getProperty("loadtest.baseline");
+        return path != null ? Path.of(path) : null;
+    }
+}
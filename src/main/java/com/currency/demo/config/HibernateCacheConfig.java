@@ -0,0 +1,37 @@
+package com.currency.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+
+/**
+ * Hands Hibernate a ready JCache manager for the second-level cache.
+ * Left to itself Hibernate turns hibernate.javax.cache.uri into a resource URL, which is a jar: URL once the
+ * application is packaged; Caffeine only reads its configuration from file: and classpath resource URIs,
+ * so the regions in hibernate-cache.conf would be missing and the jar would not start.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    /**
+     * Cache manager for the configured URI, resolved by Caffeine itself (scheme-less URIs are classpath resources).
+     * It is keyed by the application's class loader, the one Hibernate loads the entities with.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jcacheManagerCustomizer(
+            ResourceLoader resourceLoader,
+            @Value("${spring.jpa.properties.hibernate.javax.cache.provider}") String provider,
+            @Value("${spring.jpa.properties.hibernate.javax.cache.uri}") String uri) {
+        return properties -> {
+            CachingProvider cachingProvider = Caching.getCachingProvider(provider);
+            properties.put("hibernate.javax.cache.cache_manager",
+                    cachingProvider.getCacheManager(URI.create(uri), resourceLoader.getClassLoader()));
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.currency.demo.config;
+
+import com.currency.demo.model.BitcoinPriceSnapshot;
+import com.currency.demo.service.CurrencyCatalog;
+import com.currency.demo.service.PriceSnapshotService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gauges over the in-memory price and currency state.
+ * Both read the published values only, so a scrape never triggers a refresh or a database query.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Age of the published price snapshot (NaN until the first fetch)
+     */
+    @Bean
+    public MeterBinder priceSnapshotMetrics(PriceSnapshotService priceSnapshotService) {
+        return registry -> TimeGauge.builder("coindesk.snapshot.age", priceSnapshotService, TimeUnit.MILLISECONDS,
+                        service -> {
+                            BitcoinPriceSnapshot snapshot = service.getCurrentSnapshot();
+                            return snapshot != null ? snapshot.ageAt(Instant.now()).toMillis() : Double.NaN;
+                        })
+                .description("Time since the served price data was fetched from Coindesk")
+                .register(registry);
+    }
+
+    /**
+     * Number of currencies in the loaded catalog (NaN until it is first loaded)
+     */
+    @Bean
+    public MeterBinder currencyCatalogMetrics(CurrencyCatalog currencyCatalog) {
+        return registry -> Gauge.builder("currency.catalog.size", currencyCatalog,
+                        catalog -> {
+                            CurrencyCatalog.Entries entries = catalog.getLoadedEntries();
+                            return entries != null ? entries.size() : Double.NaN;
+                        })
+                .description("Currencies known to the catalog")
+                .register(registry);
+    }
+}
@@ -1,27 +1,111 @@
 package com.currency.demo.config;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 /**
- * RestTemplate timeout configuration
+ * RestTemplate configuration for upstream calls.
+ * Uses a pooled, keep-alive Apache HttpClient by default; set coindesk.http.client=simple
+ * to fall back to one HttpURLConnection per request.
  */
 @Configuration
 public class RestTemplateConfig {
-    
+
+    /**
+     * Create RestTemplate Bean backed by the configured upstream request factory
+     */
+    @Bean
+    public RestTemplate restTemplate(ClientHttpRequestFactory upstreamRequestFactory) {
+        return new RestTemplate(upstreamRequestFactory);
+    }
+
+    /**
+     * Connection pool shared by all upstream calls
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "coindesk.http.client", havingValue = "pooled", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager upstreamConnectionManager(
+            @Value("${coindesk.http.max-total:50}") int maxTotal,
+            @Value("${coindesk.http.max-per-route:20}") int maxPerRoute,
+            @Value("${coindesk.http.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${coindesk.http.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${coindesk.http.validate-after-inactivity-ms:2000}") long validateAfterInactivityMs) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Re-check connections that sat idle before reusing them
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMs))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Keep-alive HttpClient with a background idle connection evictor
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "coindesk.http.client", havingValue = "pooled", matchIfMissing = true)
+    public CloseableHttpClient upstreamHttpClient(
+            PoolingHttpClientConnectionManager upstreamConnectionManager,
+            @Value("${coindesk.http.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${coindesk.http.pool-acquire-timeout-ms:1000}") long poolAcquireTimeoutMs,
+            @Value("${coindesk.http.idle-evict-ms:30000}") long idleEvictMs) {
+        return HttpClients.custom()
+                .setConnectionManager(upstreamConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Bound the wait for a free connection when the pool is exhausted
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "coindesk.http.client", havingValue = "pooled", matchIfMissing = true)
+    public ClientHttpRequestFactory pooledRequestFactory(CloseableHttpClient upstreamHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(upstreamHttpClient);
+    }
+
+    /**
+     * Expose pool statistics (leased, available, pending, max) as httpcomponents.httpclient.pool.* metrics
+     */
+    @Bean
+    @ConditionalOnProperty(name = "coindesk.http.client", havingValue = "pooled", matchIfMissing = true)
+    public MeterBinder upstreamConnectionPoolMetrics(PoolingHttpClientConnectionManager upstreamConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(upstreamConnectionManager, "coindesk");
+    }
+
     /**
-     * Create RestTemplate Bean with connection and read timeout settings
+     * Unpooled factory opening a new HttpURLConnection per call
      */
     @Bean
-    public RestTemplate restTemplate() {
+    @ConditionalOnProperty(name = "coindesk.http.client", havingValue = "simple")
+    public ClientHttpRequestFactory simpleRequestFactory(
+            @Value("${coindesk.http.connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${coindesk.http.read-timeout-ms:5000}") int readTimeoutMs) {
         SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        // Set connection timeout (5 seconds)
-        factory.setConnectTimeout(5000);
-        // Set read timeout (5 seconds)
-        factory.setReadTimeout(5000);
-        
-        return new RestTemplate(factory);
+        factory.setConnectTimeout(connectTimeoutMs);
+        factory.setReadTimeout(readTimeoutMs);
+        return factory;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,14 @@
+package com.currency.demo.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background scheduling for the price snapshot poller (disabled in tests)
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "coindesk.snapshot.scheduled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,45 @@
+package com.currency.demo.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker guarding the Coindesk API.
+ * Opens when too many recent calls fail or are slow, rejects calls immediately while open,
+ * then lets a limited number of probe calls through to decide whether to close again.
+ */
+@Configuration
+public class UpstreamCircuitBreakerConfig {
+    private static final Logger log = LoggerFactory.getLogger(UpstreamCircuitBreakerConfig.class);
+
+    @Bean
+    public CircuitBreaker upstreamCircuitBreaker(
+            @Value("${coindesk.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${coindesk.circuit-breaker.slow-call-rate-threshold:50}") float slowCallRateThreshold,
+            @Value("${coindesk.circuit-breaker.slow-call-duration-ms:2000}") long slowCallDurationMs,
+            @Value("${coindesk.circuit-breaker.sliding-window-size:10}") int slidingWindowSize,
+            @Value("${coindesk.circuit-breaker.minimum-calls:5}") int minimumCalls,
+            @Value("${coindesk.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+            @Value("${coindesk.circuit-breaker.half-open-calls:1}") int halfOpenCalls) {
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("coindesk",
+                CircuitBreakerConfig.custom()
+                        .failureRateThreshold(failureRateThreshold)
+                        .slowCallRateThreshold(slowCallRateThreshold)
+                        .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMs))
+                        .slidingWindowSize(slidingWindowSize)
+                        .minimumNumberOfCalls(minimumCalls)
+                        .waitDurationInOpenState(Duration.ofMillis(openDurationMs))
+                        .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                        .build());
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Coindesk circuit breaker {}", event.getStateTransition()));
+        return circuitBreaker;
+    }
+}
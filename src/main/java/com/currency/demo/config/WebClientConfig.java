@@ -0,0 +1,40 @@
+package com.currency.demo.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking WebClient for upstream calls made by the reactive endpoints
+ */
+@Configuration
+public class WebClientConfig {
+
+    /**
+     * Create WebClient Bean on a pooled Reactor Netty client, sharing the upstream HTTP settings
+     */
+    @Bean
+    public WebClient upstreamWebClient(
+            WebClient.Builder builder,
+            @Value("${coindesk.http.max-total:50}") int maxTotal,
+            @Value("${coindesk.http.connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${coindesk.http.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${coindesk.http.idle-evict-ms:30000}") long idleEvictMs) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("coindesk")
+                .maxConnections(maxTotal)
+                .maxIdleTime(Duration.ofMillis(idleEvictMs))
+                .evictInBackground(Duration.ofMillis(idleEvictMs))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+}
@@ -1,35 +1,63 @@
 package com.currency.demo.controller;
 
-import com.currency.demo.service.CoindeskService;
+import com.currency.demo.model.BitcoinPriceSnapshot;
+import com.currency.demo.model.CoindeskResponse;
+import com.currency.demo.service.PriceHistoryService;
+import com.currency.demo.service.PriceSnapshotService;
+import com.currency.demo.service.PriceStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/bitcoin")
 public class CoindeskController {
 
-    private final CoindeskService coindeskService;
+    // Set on price responses built from fallback data or older than the staleness bound
+    static final String STALE_HEADER = "X-Price-Stale";
+
+    private final PriceSnapshotService priceSnapshotService;
+    private final PriceStreamService priceStreamService;
+    private final PriceHistoryService priceHistoryService;
 
     @Autowired
-    public CoindeskController(CoindeskService coindeskService) {
-        this.coindeskService = coindeskService;
+    public CoindeskController(PriceSnapshotService priceSnapshotService, PriceStreamService priceStreamService,
+                              PriceHistoryService priceHistoryService) {
+        this.priceSnapshotService = priceSnapshotService;
+        this.priceStreamService = priceStreamService;
+        this.priceHistoryService = priceHistoryService;
     }
 
     /**
-     * Get original Coindesk API data
+     * Get original Coindesk API data (served from the in-memory snapshot)
      */
     @GetMapping("/price/original")
-    public ResponseEntity<Map<String, Object>> getOriginalPrice() {
-        return ResponseEntity.ok(coindeskService.getOriginalData());
+    public ResponseEntity<CoindeskResponse> getOriginalPrice() {
+        BitcoinPriceSnapshot snapshot = priceSnapshotService.getSnapshot();
+        return ResponseEntity.ok()
+                .headers(freshnessHeaders(snapshot))
+                .body(snapshot.getOriginalData());
     }
 
     /**
-     * Get transformed Bitcoin price data
+     * Get transformed Bitcoin price data (served from the in-memory snapshot)
      * Format:
      * {
      *   "updateTime": "2023/01/01 00:00:00",
@@ -47,9 +75,123 @@ public class CoindeskController {
      *     ...
      *   }
      * }
+     * The body is pre-serialized once per snapshot. Responses carry a strong ETag (one per content encoding)
+     * and Last-Modified, and conditional requests for an unchanged snapshot get 304 Not Modified with no body.
      */
     @GetMapping("/price")
-    public ResponseEntity<Map<String, Object>> getTransformedPrice() {
-        return ResponseEntity.ok(coindeskService.getTransformedData());
+    public ResponseEntity<byte[]> getTransformedPrice(
+            WebRequest webRequest,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        BitcoinPriceSnapshot snapshot = priceSnapshotService.getSnapshot();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? snapshot.getGzipEtag() : snapshot.getEtag();
+        if (webRequest.checkNotModified(etag, snapshot.getLastModified().toEpochMilli())) {
+            // 304 status and validators are already set on the response
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .lastModified(snapshot.getLastModified())
+                .headers(freshnessHeaders(snapshot))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getTransformedJsonGzip());
+        }
+        return response.body(snapshot.getTransformedJson());
+    }
+
+    /**
+     * Whether Accept-Encoding allows gzip: an explicit gzip (or x-gzip) entry decides, otherwise "*";
+     * an entry with q=0 refuses the coding
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean wildcard = false;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = qualityOf(parts) > 0;
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? accepted : gzip || accepted;
+            } else if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return gzip != null ? gzip : wildcard;
+    }
+
+    private static double qualityOf(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Age of the data in seconds, plus a stale marker while Coindesk is unavailable
+     */
+    private HttpHeaders freshnessHeaders(BitcoinPriceSnapshot snapshot) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AGE, Long.toString(Math.max(0, snapshot.ageAt(Instant.now()).toSeconds())));
+        if (priceSnapshotService.isStale(snapshot)) {
+            headers.set(STALE_HEADER, "true");
+        }
+        return headers;
+    }
+
+    /**
+     * Stream price updates as Server-Sent Events.
+     * The first "snapshot" event carries the current transformed data; each later update is sent as a
+     * "price" event, or as a "changes" event with only the changed currencies when changesOnly=true.
+     */
+    @GetMapping(path = "/price/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPrice(@RequestParam(defaultValue = "false") boolean changesOnly) {
+        return priceStreamService.subscribe(changesOnly);
+    }
+
+    /**
+     * Get recorded prices for a currency in [from, to), defaulting to the last hour.
+     * With a bucket (e.g. PT5M) the prices are downsampled to open/high/low/close/average per bucket.
+     */
+    @GetMapping("/history")
+    public ResponseEntity<Map<String, Object>> getHistory(
+            @RequestParam(defaultValue = "USD") String code,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) Duration bucket) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofHours(1));
+        if (bucket != null && !PriceHistoryService.isValidBucket(bucket)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<? extends List<?>> history = bucket == null
+                ? priceHistoryService.getPrices(code, start, end)
+                : priceHistoryService.getCandles(code, start, end, bucket);
+        if (history.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("code", code);
+        result.put("from", start);
+        result.put("to", end);
+        if (bucket != null) {
+            result.put("bucket", bucket.toString());
+        }
+        result.put(bucket == null ? "prices" : "candles", history.get());
+        return ResponseEntity.ok(result);
     }
-} 
\ No newline at end of file
+}
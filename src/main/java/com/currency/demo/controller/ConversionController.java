@@ -0,0 +1,83 @@
+package com.currency.demo.controller;
+
+import com.currency.demo.model.Conversion;
+import com.currency.demo.service.BatchConversionService;
+import com.currency.demo.service.ConversionService;
+import com.currency.demo.service.ConversionTable;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/convert")
+public class ConversionController {
+
+    // Version of the price snapshot every item of a batch was converted with
+    static final String SNAPSHOT_VERSION_HEADER = "X-Snapshot-Version";
+
+    private final ConversionService conversionService;
+    private final BatchConversionService batchConversionService;
+
+    @Autowired
+    public ConversionController(ConversionService conversionService,
+                                BatchConversionService batchConversionService) {
+        this.conversionService = conversionService;
+        this.batchConversionService = batchConversionService;
+    }
+
+    /**
+     * Convert an amount between two currencies using the current Bitcoin prices, e.g.
+     * GET /api/convert?from=EUR&to=JPY&amount=100
+     * Returns 404 if either currency has no rate, 400 if the amount is not a finite number.
+     */
+    @GetMapping
+    public ResponseEntity<Conversion> convert(@RequestParam String from, @RequestParam String to,
+                                              @RequestParam(defaultValue = "1") double amount) {
+        if (!Double.isFinite(amount)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return conversionService.convert(from, to, amount)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Convert a stream of {"from", "to", "amount"} items against one price snapshot.
+     * Accepts a JSON array (application/json) or one object per line (application/x-ndjson) and answers in
+     * the same format, in input order, while the request is still being read. Items with an unknown currency
+     * or invalid amount get an "error" field; malformed input is a 400 if nothing has been written yet,
+     * otherwise the response is cut short.
+     */
+    @PostMapping(path = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void convertBatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BatchConversionService.Format format =
+                MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                        ? BatchConversionService.Format.NDJSON
+                        : BatchConversionService.Format.JSON;
+        ConversionTable table = batchConversionService.currentTable();
+        response.setContentType(format == BatchConversionService.Format.NDJSON
+                ? MediaType.APPLICATION_NDJSON_VALUE
+                : MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(SNAPSHOT_VERSION_HEADER, Long.toString(table.getSnapshotVersion()));
+        try {
+            batchConversionService.convert(table, request.getInputStream(), response.getOutputStream(), format);
+        } catch (IllegalArgumentException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.reset();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
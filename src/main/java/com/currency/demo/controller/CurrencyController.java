@@ -1,6 +1,8 @@
 package com.currency.demo.controller;
 
 import com.currency.demo.model.Currency;
+import com.currency.demo.model.CurrencyPage;
+import com.currency.demo.model.CurrencySummary;
 import com.currency.demo.service.CurrencyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -19,9 +21,45 @@ public class CurrencyController {
         this.currencyService = currencyService;
     }
 
+    /**
+     * Full currencies ordered by id, one keyset page at a time; nextCursor in the body is null on the last page
+     */
     @GetMapping
-    public ResponseEntity<List<Currency>> getAllCurrencies() {
-        return ResponseEntity.ok(currencyService.getAllCurrencies());
+    public ResponseEntity<CurrencyPage<Currency>> getAllCurrencies(@RequestParam(required = false) Long after,
+                                                                   @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(currencyService.getCurrencies(after, size));
+    }
+
+    /**
+     * Exactly the currencies with the given codes (at most the maximum page size)
+     */
+    @GetMapping(params = "codes")
+    public ResponseEntity<List<Currency>> getCurrenciesByCodes(@RequestParam List<String> codes) {
+        if (codes.size() > currencyService.getMaxPageSize()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(currencyService.getCurrenciesByCodes(codes));
+    }
+
+    /**
+     * Keyset-paginated list of currency codes and names, ordered by code (default) or id
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CurrencyPage<CurrencySummary>> getCurrencyPage(@RequestParam(defaultValue = "code") String sort,
+                                                                         @RequestParam(required = false) String after,
+                                                                         @RequestParam(required = false) Integer size) {
+        if ("code".equals(sort)) {
+            return ResponseEntity.ok(currencyService.getCurrencyPageByCode(after, size));
+        }
+        if ("id".equals(sort)) {
+            try {
+                Long afterId = after != null ? Long.valueOf(after) : null;
+                return ResponseEntity.ok(currencyService.getCurrencyPageById(afterId, size));
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        return ResponseEntity.badRequest().build();
     }
 
     @GetMapping("/{id}")
@@ -53,4 +91,20 @@ public class CurrencyController {
         currencyService.deleteCurrency(id);
         return ResponseEntity.ok().build();
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Currency>> createCurrencies(@RequestBody List<Currency> currencies) {
+        return ResponseEntity.ok(currencyService.createCurrencies(currencies));
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<List<Currency>> upsertCurrencies(@RequestBody List<Currency> currencies) {
+        return ResponseEntity.ok(currencyService.upsertCurrencies(currencies));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> deleteCurrencies(@RequestParam List<Long> ids) {
+        currencyService.deleteCurrencies(ids);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.currency.demo.controller;
+
+import com.currency.demo.model.CoindeskResponse;
+import com.currency.demo.model.PriceSnapshot;
+import com.currency.demo.service.ReactiveCoindeskService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking mirror of CoindeskController.
+ * Handlers return Mono, so the request thread is released while the upstream call is in flight.
+ */
+@RestController
+@RequestMapping("/api/reactive/bitcoin")
+public class ReactiveCoindeskController {
+
+    private final ReactiveCoindeskService reactiveCoindeskService;
+
+    @Autowired
+    public ReactiveCoindeskController(ReactiveCoindeskService reactiveCoindeskService) {
+        this.reactiveCoindeskService = reactiveCoindeskService;
+    }
+
+    /**
+     * Get original Coindesk API data
+     */
+    @GetMapping("/price/original")
+    public Mono<CoindeskResponse> getOriginalPrice() {
+        return reactiveCoindeskService.getOriginalData();
+    }
+
+    /**
+     * Get transformed Bitcoin price data (same format as /api/bitcoin/price)
+     */
+    @GetMapping("/price")
+    public Mono<PriceSnapshot> getTransformedPrice() {
+        return reactiveCoindeskService.getTransformedData();
+    }
+}
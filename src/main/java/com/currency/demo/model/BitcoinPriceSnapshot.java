@@ -0,0 +1,63 @@
+package com.currency.demo.model;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Immutable snapshot of one Coindesk fetch and its transformed result.
+ * A new instance is published for every refresh and swapped in atomically.
+ * The transformed result is also kept pre-serialized (plain and gzip) with its HTTP validators;
+ * each encoding has its own strong ETag, since the two bodies are different byte sequences.
+ */
+public final class BitcoinPriceSnapshot {
+    private final long version;
+    private final Instant fetchedAt;
+    private final PriceSource source;
+    private final long catalogVersion;
+    private final CoindeskResponse originalData;
+    private final PriceSnapshot transformedData;
+    private final byte[] transformedJson;
+    private final byte[] transformedJsonGzip;
+    private final String etag;
+    private final String gzipEtag;
+    private final Instant lastModified;
+
+    public BitcoinPriceSnapshot(long version, Instant fetchedAt, PriceSource source, long catalogVersion,
+                                CoindeskResponse originalData, PriceSnapshot transformedData,
+                                byte[] transformedJson, byte[] transformedJsonGzip,
+                                String etag, Instant lastModified) {
+        this.version = version;
+        this.fetchedAt = fetchedAt;
+        this.source = source;
+        this.catalogVersion = catalogVersion;
+        this.originalData = originalData;
+        this.transformedData = transformedData;
+        this.transformedJson = transformedJson;
+        this.transformedJsonGzip = transformedJsonGzip;
+        this.etag = etag;
+        this.gzipEtag = etag.endsWith("\"") ? etag.substring(0, etag.length() - 1) + "-gz\"" : etag + "-gz";
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Age of this snapshot relative to the given instant
+     */
+    public Duration ageAt(Instant now) {
+        return Duration.between(fetchedAt, now);
+    }
+
+    // Getters
+    public long getVersion() { return version; }
+    public Instant getFetchedAt() { return fetchedAt; }
+    public PriceSource getSource() { return source; }
+    public long getCatalogVersion() { return catalogVersion; }
+    public CoindeskResponse getOriginalData() { return originalData; }
+    public PriceSnapshot getTransformedData() { return transformedData; }
+    public String getEtag() { return etag; }
+    public String getGzipEtag() { return gzipEtag; }
+    public Instant getLastModified() { return lastModified; }
+
+    // Serialized bodies are shared by every request; callers must not modify them
+    public byte[] getTransformedJson() { return transformedJson; }
+    public byte[] getTransformedJsonGzip() { return transformedJsonGzip; }
+}
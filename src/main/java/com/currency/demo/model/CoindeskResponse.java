@@ -1,8 +1,10 @@
 package com.currency.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Map;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class CoindeskResponse {
     private Time time;
     private String disclaimer;
@@ -10,11 +12,21 @@ public class CoindeskResponse {
     @JsonProperty("bpi")
     private Map<String, BPI> bpi;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class Time {
         private String updated;
         private String updatedISO;
         private String updateduk;
 
+        // Constructors
+        public Time() {}
+
+        public Time(String updated, String updatedISO, String updateduk) {
+            this.updated = updated;
+            this.updatedISO = updatedISO;
+            this.updateduk = updateduk;
+        }
+
         // Getters and Setters
         public String getUpdated() { return updated; }
         public void setUpdated(String updated) { this.updated = updated; }
@@ -24,6 +36,7 @@ public class CoindeskResponse {
         public void setUpdateduk(String updateduk) { this.updateduk = updateduk; }
     }
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class BPI {
         private String code;
         private String symbol;
@@ -32,6 +45,17 @@ public class CoindeskResponse {
         @JsonProperty("rate_float")
         private double rateFloat;
 
+        // Constructors
+        public BPI() {}
+
+        public BPI(String code, String symbol, String rate, String description, double rateFloat) {
+            this.code = code;
+            this.symbol = symbol;
+            this.rate = rate;
+            this.description = description;
+            this.rateFloat = rateFloat;
+        }
+
         // Getters and Setters
         public String getCode() { return code; }
         public void setCode(String code) { this.code = code; }
@@ -0,0 +1,11 @@
+package com.currency.demo.model;
+
+import java.time.Instant;
+
+/**
+ * Result of converting an amount between two currencies.
+ * estimated is true when either currency's rate is an approximation rather than a Coindesk quote.
+ */
+public record Conversion(String from, String to, double amount, double rate, double result,
+                         boolean estimated, Instant asOf) {
+}
@@ -0,0 +1,10 @@
+package com.currency.demo.model;
+
+import java.util.List;
+
+/**
+ * One page of currencies (full entities or summaries); pass nextCursor as "after" to get the next page
+ * (null on the last page)
+ */
+public record CurrencyPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,20 @@
+package com.currency.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Bitcoin price in one currency, as served by /api/bitcoin/price.
+ * Live quotes serialize without estimated and ratioAsOf; estimates carry the publication time of their FX ratio.
+ */
+public record CurrencyQuote(String code, double rate, String chineseName,
+                            @JsonInclude(JsonInclude.Include.NON_DEFAULT) boolean estimated,
+                            @JsonInclude(JsonInclude.Include.NON_NULL) String ratioAsOf) {
+
+    public static CurrencyQuote live(String code, double rate, String chineseName) {
+        return new CurrencyQuote(code, rate, chineseName, false, null);
+    }
+
+    public static CurrencyQuote estimate(String code, double rate, String chineseName, String ratioAsOf) {
+        return new CurrencyQuote(code, rate, chineseName, true, ratioAsOf);
+    }
+}
@@ -0,0 +1,7 @@
+package com.currency.demo.model;
+
+/**
+ * Read-only projection of a currency for list views; selects only the columns it needs
+ */
+public record CurrencySummary(Long id, String code, String name) {
+}
@@ -0,0 +1,48 @@
+package com.currency.demo.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Approximate value of one unit of a currency in USD, used to estimate Bitcoin prices for
+ * currencies Coindesk does not quote
+ */
+@Entity
+@Table(name = "fx_rate")
+public class FxRate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fx_rate_seq")
+    @SequenceGenerator(name = "fx_rate_seq", sequenceName = "fx_rate_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 3)
+    private String code;
+
+    // USD per unit of this currency, e.g. 0.009 for JPY
+    @Column(nullable = false)
+    private double ratio;
+
+    // When the source published this ratio
+    @Column(name = "as_of", nullable = false)
+    private Instant asOf;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+    public double getRatio() { return ratio; }
+    public void setRatio(double ratio) { this.ratio = ratio; }
+    public Instant getAsOf() { return asOf; }
+    public void setAsOf(Instant asOf) { this.asOf = asOf; }
+
+    // Constructors
+    public FxRate() {}
+
+    public FxRate(String code, double ratio, Instant asOf) {
+        this.code = code;
+        this.ratio = ratio;
+        this.asOf = asOf;
+    }
+}
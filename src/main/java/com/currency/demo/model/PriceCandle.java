@@ -0,0 +1,10 @@
+package com.currency.demo.model;
+
+import java.time.Instant;
+
+/**
+ * Aggregated Bitcoin prices for one time bucket; time is the start of the bucket
+ */
+public record PriceCandle(Instant time, double open, double high, double low, double close,
+                          double average, int count) {
+}
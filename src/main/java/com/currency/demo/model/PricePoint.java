@@ -0,0 +1,9 @@
+package com.currency.demo.model;
+
+import java.time.Instant;
+
+/**
+ * One recorded Bitcoin price for a currency
+ */
+public record PricePoint(Instant time, double rate) {
+}
@@ -0,0 +1,18 @@
+package com.currency.demo.model;
+
+import java.util.Collections;
+import java.util.SortedMap;
+
+/**
+ * Transformed Bitcoin price data as served by /api/bitcoin/price; currencies are keyed and ordered by code
+ */
+public record PriceSnapshot(String updateTime, SortedMap<String, CurrencyQuote> currencies) {
+
+    public PriceSnapshot {
+        currencies = Collections.unmodifiableSortedMap(currencies);
+    }
+
+    public CurrencyQuote getQuote(String code) {
+        return currencies.get(code);
+    }
+}
@@ -0,0 +1,13 @@
+package com.currency.demo.model;
+
+/**
+ * Where the price data in a snapshot came from
+ */
+public enum PriceSource {
+    /** Fetched from Coindesk by this refresh */
+    UPSTREAM,
+    /** Coindesk was unavailable; the last successfully fetched data is reused */
+    LAST_KNOWN_GOOD,
+    /** Coindesk has never answered successfully; built-in default prices */
+    DEFAULT
+}
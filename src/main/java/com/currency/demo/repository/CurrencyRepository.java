@@ -1,10 +1,32 @@
 package com.currency.demo.repository;
 
 import com.currency.demo.model.Currency;
+import com.currency.demo.model.CurrencySummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CurrencyRepository extends JpaRepository<Currency, Long> {
+    // Cached in the query cache; invalidated whenever the currency table is written
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "currency-by-code")
+    })
     Currency findByCode(String code);
+
+    List<Currency> findByCodeIn(Collection<String> codes);
+
+    // Keyset pagination: seek past the last key of the previous page instead of using OFFSET
+    List<CurrencySummary> findByCodeGreaterThanOrderByCodeAsc(String code, Limit limit);
+
+    List<CurrencySummary> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Currency> findCurrenciesByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 } 
\ No newline at end of file
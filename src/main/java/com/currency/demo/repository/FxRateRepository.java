@@ -0,0 +1,9 @@
+package com.currency.demo.repository;
+
+import com.currency.demo.model.FxRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FxRateRepository extends JpaRepository<FxRate, Long> {
+}
@@ -0,0 +1,290 @@
+package com.currency.demo.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Converts a stream of (from, to, amount) items against a single conversion table.
+ * Input is parsed incrementally into fixed-size chunks of primitive arrays; each chunk is converted and
+ * encoded on a fork-join pool while the next one is parsed, and encoded chunks are written in input order.
+ * At most a few chunks per worker are held in memory, however long the input is.
+ */
+@Service
+public class BatchConversionService {
+
+    /**
+     * Wire format of both the request and the response
+     */
+    public enum Format {
+        /** One JSON array of items */
+        JSON,
+        /** One JSON object per line */
+        NDJSON
+    }
+
+    /**
+     * Outcome of a batch: the snapshot it was priced against and how many items failed
+     */
+    public record Summary(long snapshotVersion, long items, long failed) {
+    }
+
+    private static final byte[] NEWLINE = {'\n'};
+    private static final byte[] COMMA = {','};
+
+    private final ConversionService conversionService;
+    private final JsonFactory jsonFactory;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public BatchConversionService(ConversionService conversionService, ObjectMapper objectMapper,
+                                  @Value("${currency.convert.batch.chunk-size:4096}") int chunkSize,
+                                  @Value("${currency.convert.batch.parallelism:0}") int parallelism) {
+        this.conversionService = conversionService;
+        this.jsonFactory = objectMapper.getFactory();
+        this.chunkSize = chunkSize;
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxChunksInFlight = workers * 2;
+        this.pool = new ForkJoinPool(workers, pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("batch-convert-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Conversion table the next batch would use; callers pass it to {@link #convert} so they can
+     * report its snapshot version before any output is written
+     */
+    public ConversionTable currentTable() {
+        return conversionService.getTable();
+    }
+
+    /**
+     * Read items from the input and write one result per item to the output, in input order.
+     * Items with an unknown currency or an invalid amount get an "error" result instead of failing the batch.
+     * Malformed input throws {@link IllegalArgumentException}; results written before that point stay written.
+     */
+    public Summary convert(ConversionTable table, InputStream in, OutputStream out, Format format) throws IOException {
+        ArrayDeque<CompletableFuture<EncodedChunk>> inFlight = new ArrayDeque<>();
+        long items = 0;
+        long failed = 0;
+        boolean first = true;
+        byte[] separator = format == Format.JSON ? COMMA : NEWLINE;
+
+        if (format == Format.JSON) {
+            out.write('[');
+        }
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            ItemReader reader = new ItemReader(parser, table, format);
+            while (true) {
+                Chunk chunk = reader.read(chunkSize);
+                if (chunk.size > 0) {
+                    inFlight.add(CompletableFuture.supplyAsync(() -> encode(chunk, table, format), pool));
+                }
+                // Write finished chunks in order; block on the oldest only when the pipeline is full
+                while (!inFlight.isEmpty() && (inFlight.size() >= maxChunksInFlight || chunk.size < chunkSize
+                        || inFlight.peek().isDone())) {
+                    EncodedChunk encoded = join(inFlight.poll());
+                    if (!first && format == Format.JSON) {
+                        out.write(separator);
+                    }
+                    out.write(encoded.bytes);
+                    first = false;
+                    items += encoded.items;
+                    failed += encoded.failed;
+                }
+                if (chunk.size < chunkSize) {
+                    break;
+                }
+            }
+        } catch (JsonProcessingException e) {
+            inFlight.forEach(pending -> pending.cancel(false));
+            throw new IllegalArgumentException("Malformed conversion input: " + e.getOriginalMessage(), e);
+        } catch (IllegalArgumentException e) {
+            inFlight.forEach(pending -> pending.cancel(false));
+            throw e;
+        }
+        if (format == Format.JSON) {
+            out.write(']');
+        }
+        out.flush();
+        return new Summary(table.getSnapshotVersion(), items, failed);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private EncodedChunk encode(Chunk chunk, ConversionTable table, Format format) {
+        // Roughly 120 bytes per encoded item
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(chunk.size * 128);
+        int failed = 0;
+        try (JsonGenerator generator = jsonFactory.createGenerator(buffer)) {
+            generator.setRootValueSeparator(new SerializedString(format == Format.JSON ? "," : "\n"));
+            for (int i = 0; i < chunk.size; i++) {
+                int from = chunk.from[i];
+                int to = chunk.to[i];
+                double amount = chunk.amount[i];
+                generator.writeStartObject();
+                generator.writeStringField("from", from >= 0 ? table.codeAt(from) : chunk.rawFrom[i]);
+                generator.writeStringField("to", to >= 0 ? table.codeAt(to) : chunk.rawTo[i]);
+                generator.writeNumberField("amount", amount);
+                String error = from < 0 || to < 0 ? "unknown currency"
+                        : !Double.isFinite(amount) ? "invalid amount" : null;
+                if (error != null) {
+                    generator.writeStringField("error", error);
+                    failed++;
+                } else {
+                    double rate = table.rate(from, to);
+                    generator.writeNumberField("rate", rate);
+                    generator.writeNumberField("result", amount * rate);
+                    generator.writeBooleanField("estimated", table.isEstimated(from, to));
+                }
+                generator.writeEndObject();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (format == Format.NDJSON) {
+            buffer.writeBytes(NEWLINE);
+        }
+        return new EncodedChunk(buffer.toByteArray(), chunk.size, failed);
+    }
+
+    private static EncodedChunk join(CompletableFuture<EncodedChunk> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private record EncodedChunk(byte[] bytes, int items, int failed) {
+    }
+
+    /**
+     * Parsed items; codes are stored as table ordinals (-1 when unknown, with the raw text kept for the error)
+     */
+    private static final class Chunk {
+        final int[] from;
+        final int[] to;
+        final double[] amount;
+        final String[] rawFrom;
+        final String[] rawTo;
+        int size;
+
+        Chunk(int capacity) {
+            from = new int[capacity];
+            to = new int[capacity];
+            amount = new double[capacity];
+            rawFrom = new String[capacity];
+            rawTo = new String[capacity];
+        }
+    }
+
+    /**
+     * Pulls items off the parser; accepts a top-level JSON array or a sequence of top-level objects (NDJSON)
+     */
+    private static final class ItemReader {
+        private final JsonParser parser;
+        private final ConversionTable table;
+        private final Format format;
+        private boolean started;
+        private boolean finished;
+        private long itemIndex;
+
+        ItemReader(JsonParser parser, ConversionTable table, Format format) {
+            this.parser = parser;
+            this.table = table;
+            this.format = format;
+        }
+
+        Chunk read(int capacity) throws IOException {
+            Chunk chunk = new Chunk(capacity);
+            while (chunk.size < capacity && !finished) {
+                JsonToken token = parser.nextToken();
+                if (!started) {
+                    started = true;
+                    if (format == Format.JSON) {
+                        if (token != JsonToken.START_ARRAY) {
+                            throw new IllegalArgumentException("Expected a JSON array of conversions");
+                        }
+                        token = parser.nextToken();
+                    }
+                }
+                if (token == null || (format == Format.JSON && token == JsonToken.END_ARRAY)) {
+                    finished = true;
+                    break;
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Item " + itemIndex + " is not a JSON object");
+                }
+                readItem(chunk, chunk.size++);
+                itemIndex++;
+            }
+            return chunk;
+        }
+
+        private void readItem(Chunk chunk, int i) throws IOException {
+            chunk.from[i] = -1;
+            chunk.to[i] = -1;
+            chunk.amount[i] = 1.0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "from" -> chunk.from[i] = readCode(value, chunk.rawFrom, i);
+                    case "to" -> chunk.to[i] = readCode(value, chunk.rawTo, i);
+                    case "amount" -> chunk.amount[i] = readAmount(value);
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        private double readAmount(JsonToken value) throws IOException {
+            if (value.isNumeric()) {
+                return parser.getDoubleValue();
+            }
+            // An object or array must be skipped whole, or the rest of it would be read as the next fields
+            parser.skipChildren();
+            return Double.NaN;
+        }
+
+        private int readCode(JsonToken value, String[] raw, int i) throws IOException {
+            if (value != JsonToken.VALUE_STRING) {
+                parser.skipChildren();
+                raw[i] = null;
+                return -1;
+            }
+            // Resolve straight from the parser's buffer; a String is only made for unknown codes
+            int ordinal = table.ordinalOf(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            raw[i] = ordinal < 0 ? parser.getText() : null;
+            return ordinal;
+        }
+    }
+}
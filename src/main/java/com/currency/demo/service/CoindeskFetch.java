@@ -0,0 +1,13 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.CoindeskResponse;
+import com.currency.demo.model.PriceSource;
+
+import java.time.Instant;
+
+/**
+ * Result of one attempt to get Coindesk data.
+ * fetchedAt is when the data was actually received from Coindesk, or the attempt time for default data.
+ */
+public record CoindeskFetch(CoindeskResponse data, PriceSource source, Instant fetchedAt) {
+}
@@ -0,0 +1,135 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.PriceSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Meters for the Coindesk price pipeline.
+ * All meters are registered up front so the hot path only looks up a field.
+ */
+@Component
+public class CoindeskMetrics {
+
+    /**
+     * Outcome of one attempt to call Coindesk
+     */
+    public enum UpstreamOutcome {
+        SUCCESS, INVALID, TIMEOUT, ERROR,
+        /** Rejected by the open circuit breaker without calling Coindesk */
+        CIRCUIT_OPEN
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<UpstreamOutcome, Timer> upstreamTimers = new EnumMap<>(UpstreamOutcome.class);
+    private final Map<PriceSource, Counter> fallbackCounters = new EnumMap<>(PriceSource.class);
+    private final Timer transformTimer;
+    private final Counter liveCurrencies;
+    private final Counter estimatedCurrencies;
+
+    @Autowired
+    public CoindeskMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (UpstreamOutcome outcome : UpstreamOutcome.values()) {
+            upstreamTimers.put(outcome, Timer.builder("coindesk.upstream.requests")
+                    .description("Coindesk API calls")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        for (PriceSource source : new PriceSource[] {PriceSource.LAST_KNOWN_GOOD, PriceSource.DEFAULT}) {
+            fallbackCounters.put(source, Counter.builder("coindesk.fallbacks")
+                    .description("Fetches answered with fallback data instead of a Coindesk response")
+                    .tag("source", source.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        transformTimer = Timer.builder("coindesk.transform")
+                .description("Transformation of Coindesk data into the API payload")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        liveCurrencies = Counter.builder("coindesk.transform.currencies")
+                .description("Currencies in transformed payloads")
+                .tag("rate", "live")
+                .register(meterRegistry);
+        estimatedCurrencies = Counter.builder("coindesk.transform.currencies")
+                .description("Currencies in transformed payloads")
+                .tag("rate", "estimated")
+                .register(meterRegistry);
+    }
+
+    public Timer upstreamTimer(UpstreamOutcome outcome) {
+        return upstreamTimers.get(outcome);
+    }
+
+    /**
+     * Timer for one price provider's calls; the registry returns the existing timer after the first call
+     */
+    public Timer providerTimer(String provider, UpstreamOutcome outcome) {
+        return Timer.builder("coindesk.provider.requests")
+                .description("Calls to each configured price provider")
+                .tag("provider", provider)
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publish a SingleFlight's execution and coalesced-call counts, tagged with the flight's name
+     */
+    public void registerFlight(String name, SingleFlight<?, ?> flight) {
+        FunctionCounter.builder("coindesk.singleflight.executions", flight, SingleFlight::getExecutionCount)
+                .description("Loader executions started by a single-flight group")
+                .tag("flight", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("coindesk.singleflight.coalesced", flight, SingleFlight::getCoalescedCount)
+                .description("Calls that joined a load already in flight instead of starting one")
+                .tag("flight", name)
+                .register(meterRegistry);
+    }
+
+    public Timer transformTimer() {
+        return transformTimer;
+    }
+
+    public void recordFallback(PriceSource source) {
+        Counter counter = fallbackCounters.get(source);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    public void recordCurrencies(int live, int estimated) {
+        liveCurrencies.increment(live);
+        estimatedCurrencies.increment(estimated);
+    }
+
+    /**
+     * Classify a failed upstream call
+     */
+    static UpstreamOutcome outcomeOf(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InvalidUpstreamResponseException) {
+                return UpstreamOutcome.INVALID;
+            }
+            // SocketTimeoutException and HttpClient's ConnectTimeoutException are InterruptedIOExceptions
+            if (cause instanceof InterruptedIOException || cause instanceof TimeoutException
+                    || cause instanceof io.netty.handler.timeout.TimeoutException) {
+                return UpstreamOutcome.TIMEOUT;
+            }
+        }
+        return UpstreamOutcome.ERROR;
+    }
+}
@@ -0,0 +1,125 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.CoindeskResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streaming parser for the Coindesk payload.
+ * Reads tokens straight into CoindeskResponse without building an intermediate Map tree,
+ * skips fields the service does not use and keeps rate_float as a primitive double.
+ */
+@Component
+public class CoindeskResponseParser {
+
+    private final JsonFactory jsonFactory;
+
+    @Autowired
+    public CoindeskResponseParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Parse a Coindesk response body
+     */
+    public CoindeskResponse parse(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object");
+            }
+
+            CoindeskResponse response = new CoindeskResponse();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "time" -> response.setTime(parseTime(parser));
+                    case "disclaimer" -> response.setDisclaimer(parser.getValueAsString());
+                    case "chartName" -> response.setChartName(parser.getValueAsString());
+                    case "bpi" -> response.setBpi(parseBpi(parser));
+                    default -> parser.skipChildren();
+                }
+            }
+            return response;
+        }
+    }
+
+    private CoindeskResponse.Time parseTime(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+
+        CoindeskResponse.Time time = new CoindeskResponse.Time();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "updated" -> time.setUpdated(parser.getValueAsString());
+                case "updatedISO" -> time.setUpdatedISO(parser.getValueAsString());
+                case "updateduk" -> time.setUpdateduk(parser.getValueAsString());
+                default -> parser.skipChildren();
+            }
+        }
+        return time;
+    }
+
+    private Map<String, CoindeskResponse.BPI> parseBpi(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+
+        // Keep upstream order so the transformed output is deterministic
+        Map<String, CoindeskResponse.BPI> bpi = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String code = parser.currentName();
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                bpi.put(code, parseCurrency(parser, code));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return Collections.unmodifiableMap(bpi);
+    }
+
+    private CoindeskResponse.BPI parseCurrency(JsonParser parser, String key) throws IOException {
+        CoindeskResponse.BPI currency = new CoindeskResponse.BPI();
+        currency.setCode(key);
+        // Stays NaN when rate_float is missing so validation rejects it instead of pricing at 0
+        currency.setRateFloat(Double.NaN);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "code" -> currency.setCode(parser.getValueAsString(key));
+                case "symbol" -> currency.setSymbol(parser.getValueAsString());
+                case "rate" -> currency.setRate(parser.getValueAsString());
+                case "description" -> currency.setDescription(parser.getValueAsString());
+                case "rate_float" -> currency.setRateFloat(parseRate(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return currency;
+    }
+
+    private double parseRate(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token.isNumeric() || token == JsonToken.VALUE_STRING) {
+            return parser.getValueAsDouble(Double.NaN);
+        }
+        parser.skipChildren();
+        return Double.NaN;
+    }
+}
@@ -1,255 +1,394 @@
 package com.currency.demo.service;
 
-import com.currency.demo.model.Currency;
-import com.currency.demo.repository.CurrencyRepository;
+import com.currency.demo.model.CoindeskResponse;
+import com.currency.demo.model.CurrencyQuote;
+import com.currency.demo.model.PriceSnapshot;
+import com.currency.demo.model.PriceSource;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class CoindeskService {
     private static final Logger log = LoggerFactory.getLogger(CoindeskService.class);
-    private static final String COINDESK_API_URL = "https://api.coindesk.com/v1/bpi/currentprice.json";
+    // Output format of the update time, also used for the current time when Coindesk's cannot be read
+    private static final DateTimeFormatter UPDATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
+    private static final String[] MONTHS =
+            {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+    
+    // Built once; served only until Coindesk has answered successfully at least once
+    private static final CoindeskResponse DEFAULT_DATA = buildDefaultData();
+    
+    @Value("${coindesk.api-url:https://api.coindesk.com/v1/bpi/currentprice.json}")
+    private URI apiUrl;
+    
+    @Autowired
+    private PriceAggregator priceAggregator;
     
     @Autowired
-    private RestTemplate restTemplate;
+    private CurrencyCatalog currencyCatalog;
+    
+    @Autowired
+    private CircuitBreaker upstreamCircuitBreaker;
+    
+    @Autowired
+    private CoindeskMetrics metrics;
+    
+    @Autowired
+    private FxRateService fxRateService;
+    
+    // Concurrent fetches of the same upstream URL share one request
+    private final SingleFlight<URI, CoindeskFetch> upstreamFlights = new SingleFlight<>();
+    
+    // Most recent successful upstream response
+    private final AtomicReference<CoindeskFetch> lastKnownGood = new AtomicReference<>();
+    
+    // Repeated upstream failures are logged once per interval
+    private LogSampler upstreamFailureLog = new LogSampler(Duration.ofMinutes(1));
     
     @Autowired
-    private CurrencyRepository currencyRepository;
+    void registerFlightMeters(CoindeskMetrics metrics) {
+        metrics.registerFlight("upstream", upstreamFlights);
+    }
+    
+    @Value("${coindesk.log.failure-sample-interval-ms:60000}")
+    void setFailureLogIntervalMs(long intervalMs) {
+        upstreamFailureLog = new LogSampler(Duration.ofMillis(intervalMs));
+    }
     
     /**
      * Get original Bitcoin price data from Coindesk API
+     * Concurrent callers are coalesced into a single upstream request.
      */
-    public Map<String, Object> getOriginalData() {
-        log.info("Calling Coindesk API to get original data");
-        Map<String, Object> response = null;
-        
+    public CoindeskResponse getOriginalData() {
+        return fetch().data();
+    }
+    
+    /**
+     * Get Bitcoin price data together with where it came from.
+     * When Coindesk fails or the circuit breaker is open, the last successfully fetched data is returned,
+     * or the built-in default data if nothing has been fetched yet.
+     */
+    public CoindeskFetch fetch() {
+        return upstreamFlights.execute(apiUrl, this::fetchOriginalData);
+    }
+    
+    /**
+     * Coindesk endpoint prices are fetched from
+     */
+    public URI getApiUrl() {
+        return apiUrl;
+    }
+    
+    /**
+     * Whether upstream calls are currently allowed through the circuit breaker without restriction
+     */
+    public boolean isUpstreamAvailable() {
+        return upstreamCircuitBreaker.getState() == CircuitBreaker.State.CLOSED;
+    }
+    
+    /**
+     * Coalescing statistics for upstream fetches
+     */
+    public SingleFlight<URI, CoindeskFetch> getUpstreamFlights() {
+        return upstreamFlights;
+    }
+    
+    private CoindeskFetch fetchOriginalData() {
+        long start = System.nanoTime();
+        CoindeskMetrics.UpstreamOutcome outcome = CoindeskMetrics.UpstreamOutcome.SUCCESS;
         try {
-            // Call Coindesk API
-            response = restTemplate.getForObject(COINDESK_API_URL, Map.class);
-            
-            // Validate if API response is complete
-            if (!isValidResponse(response)) {
-                log.warn("Coindesk API returned incomplete data");
-                response = createDefaultData();
-            }
+            return recordSuccess(upstreamCircuitBreaker.executeCallable(this::fetchFromUpstream));
+        } catch (CallNotPermittedException e) {
+            // Open circuit: answer from memory without touching the network
+            outcome = CoindeskMetrics.UpstreamOutcome.CIRCUIT_OPEN;
+            log.debug("Coindesk circuit breaker is open, serving fallback data");
+            return fallback();
         } catch (Exception e) {
-            // API call failed, use default data
-            log.error("Failed to get Coindesk API data, using mock data", e);
-            response = createDefaultData();
+            outcome = CoindeskMetrics.outcomeOf(e);
+            logUpstreamFailure(e);
+            return fallback();
+        } finally {
+            metrics.upstreamTimer(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
-        
-        return response;
+    }
+    
+    /**
+     * Log an upstream failure, at most once per sampling interval.
+     * While Coindesk is down every request can fail the same way; one line with a count of the
+     * suppressed repeats is enough, and the stack trace is only logged at debug level.
+     */
+    void logUpstreamFailure(Throwable failure) {
+        long suppressed = upstreamFailureLog.sample();
+        if (suppressed < 0) {
+            return;
+        }
+        if (suppressed > 0) {
+            log.warn("Failed to get Coindesk API data, serving fallback data: {} ({} similar failures not logged)",
+                    failure.toString(), suppressed);
+        } else {
+            log.warn("Failed to get Coindesk API data, serving fallback data: {}", failure.toString());
+        }
+        log.debug("Coindesk API failure", failure);
+    }
+    
+    private CoindeskResponse fetchFromUpstream() {
+        log.debug("Calling Coindesk API to get original data");
+        // One provider, or a composite of the configured providers once a quorum has answered
+        return priceAggregator.fetch();
+    }
+    
+    /**
+     * Remember a successful upstream response as the last known good data
+     */
+    CoindeskFetch recordSuccess(CoindeskResponse response) {
+        CoindeskFetch fetched = new CoindeskFetch(response, PriceSource.UPSTREAM, Instant.now());
+        lastKnownGood.set(fetched);
+        return fetched;
+    }
+    
+    /**
+     * Data to serve when Coindesk is unavailable
+     */
+    CoindeskFetch fallback() {
+        CoindeskFetch latest = lastKnownGood.get();
+        CoindeskFetch fallback = latest != null
+                ? new CoindeskFetch(latest.data(), PriceSource.LAST_KNOWN_GOOD, latest.fetchedAt())
+                : new CoindeskFetch(DEFAULT_DATA, PriceSource.DEFAULT, Instant.now());
+        metrics.recordFallback(fallback.source());
+        return fallback;
     }
     
     /**
      * Validate if the API response contains required fields
      */
-    private boolean isValidResponse(Map<String, Object> response) {
+    static boolean isValidResponse(CoindeskResponse response) {
         if (response == null) return false;
         
         // Check if required fields exist
-        if (!response.containsKey("bpi") || !response.containsKey("time")) {
+        if (response.getBpi() == null || response.getTime() == null) {
             return false;
         }
         
         // Check if bpi is empty
-        Map<String, Object> bpi = (Map<String, Object>) response.get("bpi");
-        if (bpi == null || bpi.isEmpty()) {
+        if (response.getBpi().isEmpty()) {
             return false;
         }
         
+        // Every quote needs a positive rate; NaN (missing) fails the comparison too
+        for (CoindeskResponse.BPI quote : response.getBpi().values()) {
+            if (quote == null || !(quote.getRateFloat() > 0)) {
+                return false;
+            }
+        }
         return true;
     }
     
     /**
-     * Create default Bitcoin price data (when API call fails)
+     * Create default Bitcoin price data (served when API calls fail and nothing has been fetched yet)
      */
-    private Map<String, Object> createDefaultData() {
-        log.info("Creating mock Bitcoin price data");
-        Map<String, Object> mockData = new HashMap<>();
+    private static CoindeskResponse buildDefaultData() {
+        CoindeskResponse mockData = new CoindeskResponse();
         
         // Time information
-        Map<String, Object> time = new HashMap<>();
         LocalDateTime now = LocalDateTime.now();
         ZonedDateTime utcNow = now.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC"));
-        
-        time.put("updated", utcNow.format(DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm:ss")) + " UTC");
-        time.put("updatedISO", utcNow.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME));
-        time.put("updateduk", utcNow.withZoneSameInstant(ZoneId.of("Europe/London"))
-                .format(DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm")) + " BST");
-        mockData.put("time", time);
+        mockData.setTime(new CoindeskResponse.Time(
+                utcNow.format(DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm:ss")) + " UTC",
+                utcNow.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME),
+                utcNow.withZoneSameInstant(ZoneId.of("Europe/London"))
+                        .format(DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm")) + " BST"));
         
         // Disclaimer
-        mockData.put("disclaimer", "This data was produced from the CoinDesk Bitcoin Price Index (USD). "
+        mockData.setDisclaimer("This data was produced from the CoinDesk Bitcoin Price Index (USD). "
                 + "Non-USD currency data converted using hourly conversion rate from openexchangerates.org");
-        mockData.put("chartName", "Bitcoin");
+        mockData.setChartName("Bitcoin");
         
         // Bitcoin Price Index
-        Map<String, Object> bpi = new HashMap<>();
-        
-        // USD
-        Map<String, Object> usd = new HashMap<>();
-        usd.put("code", "USD");
-        usd.put("symbol", "&dollar;");
-        usd.put("rate", "50,000.0000");
-        usd.put("description", "United States Dollar");
-        usd.put("rate_float", 50000.0000);
-        bpi.put("USD", usd);
-        
-        // GBP
-        Map<String, Object> gbp = new HashMap<>();
-        gbp.put("code", "GBP");
-        gbp.put("symbol", "&pound;");
-        gbp.put("rate", "40,000.0000");
-        gbp.put("description", "British Pound Sterling");
-        gbp.put("rate_float", 40000.0000);
-        bpi.put("GBP", gbp);
-        
-        // EUR
-        Map<String, Object> eur = new HashMap<>();
-        eur.put("code", "EUR");
-        eur.put("symbol", "&euro;");
-        eur.put("rate", "45,000.0000");
-        eur.put("description", "Euro");
-        eur.put("rate_float", 45000.0000);
-        bpi.put("EUR", eur);
-        
-        mockData.put("bpi", bpi);
+        Map<String, CoindeskResponse.BPI> bpi = new LinkedHashMap<>();
+        bpi.put("USD", new CoindeskResponse.BPI("USD", "&dollar;", "50,000.0000", "United States Dollar", 50000.0000));
+        bpi.put("GBP", new CoindeskResponse.BPI("GBP", "&pound;", "40,000.0000", "British Pound Sterling", 40000.0000));
+        bpi.put("EUR", new CoindeskResponse.BPI("EUR", "&euro;", "45,000.0000", "Euro", 45000.0000));
+        mockData.setBpi(Collections.unmodifiableMap(bpi));
         
         return mockData;
     }
     
+    /**
+     * Fetch and transform Bitcoin price data
+     */
+    public PriceSnapshot getTransformedData() {
+        return transform(getOriginalData());
+    }
+    
     /**
      * Transform Bitcoin price data
+     * Chinese names come from the in-memory currency catalog, so no database queries are made.
      */
-    public Map<String, Object> getTransformedData() {
-        log.info("Starting Bitcoin price data transformation");
-        
-        // Get original data
-        Map<String, Object> originalData = getOriginalData();
-        
-        // Create transformed data structure
-        Map<String, Object> transformedData = new HashMap<>();
+    public PriceSnapshot transform(CoindeskResponse originalData) {
+        // Use one consistent catalog view for the whole transformation
+        return transform(originalData, currencyCatalog.getEntries());
+    }
+    
+    /**
+     * Transform Bitcoin price data against the given catalog view
+     */
+    public PriceSnapshot transform(CoindeskResponse originalData, CurrencyCatalog.Entries catalog) {
+        long start = System.nanoTime();
+        try {
+            return doTransform(originalData, catalog);
+        } finally {
+            metrics.transformTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private PriceSnapshot doTransform(CoindeskResponse originalData, CurrencyCatalog.Entries catalog) {
+        log.debug("Starting Bitcoin price data transformation");
         
         // Format time
-        try {
-            Map<String, Object> time = (Map<String, Object>) originalData.get("time");
-            String updateTimeStr = (String) time.get("updated");
-            
-            // Format to yyyy/MM/dd HH:mm:ss
-            DateTimeFormatter inputFormatter = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm:ss z");
-            DateTimeFormatter outputFormatter = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
-            
-            LocalDateTime updateTime = LocalDateTime.parse(updateTimeStr, inputFormatter);
-            String formattedTime = updateTime.format(outputFormatter);
-            
-            log.debug("Formatted update time: {}", formattedTime);
-            transformedData.put("updateTime", formattedTime);
-        } catch (Exception e) {
-            log.warn("Error parsing time, using current time instead", e);
-            transformedData.put("updateTime", 
-                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss")));
+        String updated = originalData.getTime() != null ? originalData.getTime().getUpdated() : null;
+        String updateTime = formatUpdateTime(updated);
+        if (updateTime != null) {
+            log.debug("Formatted update time: {}", updateTime);
+        } else {
+            log.warn("Cannot parse update time '{}', using current time instead", updated);
+            updateTime = LocalDateTime.now().format(UPDATE_TIME_FORMAT);
         }
         
-        // Process currency data
-        Map<String, Object> currencies = new LinkedHashMap<>();
-        Map<String, Object> bpi = (Map<String, Object>) originalData.get("bpi");
+        // Quotes are keyed and ordered by currency code
+        SortedMap<String, CurrencyQuote> currencies = new TreeMap<>();
         
         // Process currencies from API response
-        bpi.keySet().forEach(code -> {
-            Map<String, Object> currency = (Map<String, Object>) bpi.get(code);
-            
-            Map<String, Object> transformedCurrency = new HashMap<>();
-            transformedCurrency.put("code", code);
-            
-            // Get exchange rate
-            double rate = (Double) currency.get("rate_float");
-            transformedCurrency.put("rate", rate);
+        originalData.getBpi().forEach((code, currency) -> {
+            double rate = currency.getRateFloat();
             
             // Get Chinese name
-            Currency dbCurrency = currencyRepository.findByCode(code);
-            String chineseName = (dbCurrency != null && dbCurrency.getName() != null) 
-                    ? dbCurrency.getName() 
+            String name = catalog.getName(code);
+            String chineseName = name != null 
+                    ? name 
                     : code + " (No Chinese name)";
-            transformedCurrency.put("chineseName", chineseName);
             
-            log.debug("Processing currency: {}, Chinese name: {}, rate: {}", 
-                    code, chineseName, rate);
+            // Guarded: the arguments box the rate even when debug is off
+            if (log.isDebugEnabled()) {
+                log.debug("Processing currency: {}, Chinese name: {}, rate: {}", code, chineseName, rate);
+            }
             
-            currencies.put(code, transformedCurrency);
+            currencies.put(code, CurrencyQuote.live(code, rate, chineseName));
         });
         
         // Add currencies that exist in database but not in API response
-        addMissingCurrencies(currencies);
-        
-        transformedData.put("currencies", currencies);
+        int liveCount = currencies.size();
+        addMissingCurrencies(currencies, catalog);
+        metrics.recordCurrencies(liveCount, currencies.size() - liveCount);
         
-        log.info("Completed Bitcoin price data transformation");
-        return transformedData;
+        log.debug("Completed Bitcoin price data transformation");
+        return new PriceSnapshot(updateTime, currencies);
     }
     
     /**
-     * Add currencies that exist in database but not in API response
+     * Format Coindesk's update time ("Mar 29, 2025 11:53:00 UTC") to yyyy/MM/dd HH:mm:ss, or null if it is not
+     * in that format. The format is fixed, so fields are read by position and a mismatch needs no exception.
      */
-    private void addMissingCurrencies(Map<String, Object> currencies) {
-        // Get all currencies from database
-        List<Currency> allCurrencies = currencyRepository.findAll();
-        
-        // Get USD rate as reference (if exists)
-        Double usdRate = null;
-        if (currencies.containsKey("USD")) {
-            Map<String, Object> usd = (Map<String, Object>) currencies.get("USD");
-            usdRate = (Double) usd.get("rate");
+    static String formatUpdateTime(String updated) {
+        if (updated == null || updated.length() < 23 || updated.charAt(3) != ' ' || updated.charAt(6) != ','
+                || updated.charAt(7) != ' ' || updated.charAt(12) != ' ' || updated.charAt(15) != ':'
+                || updated.charAt(18) != ':' || updated.charAt(21) != ' ') {
+            return null;
+        }
+        int month = monthOf(updated);
+        int day = digits(updated, 4, 2);
+        int year = digits(updated, 8, 4);
+        int hour = digits(updated, 13, 2);
+        int minute = digits(updated, 16, 2);
+        int second = digits(updated, 19, 2);
+        // Unknown months and non-digit fields are -1
+        if ((month | day | year | hour | minute | second) < 0) {
+            return null;
+        }
+        if (day < 1 || day > YearMonth.of(year, month).lengthOfMonth() || hour > 23 || minute > 59 || second > 59) {
+            return null;
         }
         
-        // If USD rate doesn't exist, use default value
-        if (usdRate == null) {
-            usdRate = 50000.0;
+        // yyyy/MM/dd HH:mm:ss
+        StringBuilder formatted = new StringBuilder(19)
+                .append(updated, 8, 12).append('/')
+                .append((char) ('0' + month / 10)).append((char) ('0' + month % 10)).append('/')
+                .append(updated, 4, 6).append(' ')
+                .append(updated, 13, 21);
+        return formatted.toString();
+    }
+    
+    private static int monthOf(String updated) {
+        for (int i = 0; i < MONTHS.length; i++) {
+            if (updated.startsWith(MONTHS[i])) {
+                return i + 1;
+            }
         }
+        return -1;
+    }
+    
+    /**
+     * Value of the decimal digits at text[offset, offset + length), or -1 if any of them is not a digit
+     */
+    private static int digits(String text, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+    
+    /**
+     * Add currencies that exist in database but not in API response
+     */
+    void addMissingCurrencies(Map<String, CurrencyQuote> currencies, CurrencyCatalog.Entries catalog) {
+        // Get USD rate as reference, or a default value if Coindesk did not quote USD
+        CurrencyQuote usd = currencies.get("USD");
+        final double usdRate = usd != null ? usd.rate() : 50000.0;
         
-        // Exchange rate ratios for approximation
-        final Map<String, Double> rateRatios = new HashMap<>();
-        rateRatios.put("JPY", 0.009); // 1 USD ≈ 111 JPY
-        rateRatios.put("CNY", 0.155); // 1 USD ≈ 6.45 CNY
-        rateRatios.put("HKD", 0.128); // 1 USD ≈ 7.8 HKD
-        rateRatios.put("TWD", 0.036); // 1 USD ≈ 27.8 TWD
-        rateRatios.put("AUD", 0.75);  // 1 USD ≈ 1.33 AUD
-        rateRatios.put("CAD", 0.80);  // 1 USD ≈ 1.25 CAD
-        rateRatios.put("SGD", 0.74);  // 1 USD ≈ 1.35 SGD
-        rateRatios.put("CHF", 1.09);  // 1 USD ≈ 0.92 CHF
+        // One array lookup per currency in the published FX table
+        final FxRateTable fxRates = fxRateService.getTable();
+        final double defaultRatio = fxRateService.getDefaultRatio();
         
-        // For each currency in database
-        final Double finalUsdRate = usdRate;
-        allCurrencies.forEach(currency -> {
-            String code = currency.getCode();
-            
+        // For each currency in the catalog
+        catalog.namesByCode().forEach((code, name) -> {
             // If the currency is not in API response
             if (!currencies.containsKey(code)) {
-                Map<String, Object> estimatedCurrency = new HashMap<>();
-                estimatedCurrency.put("code", code);
-                estimatedCurrency.put("chineseName", currency.getName());
-                
                 // Calculate estimated rate
-                Double ratio = rateRatios.getOrDefault(code, 0.5); // Default ratio
-                Double estimatedRate = finalUsdRate * ratio;
+                int ordinal = fxRates.ordinalOf(code);
+                double estimatedRate = usdRate * (ordinal >= 0 ? fxRates.ratio(ordinal) : defaultRatio);
                 
-                estimatedCurrency.put("rate", estimatedRate);
-                estimatedCurrency.put("estimated", true); // Mark as estimated value
+                // When the ratio behind the estimate was published, so clients can judge its age
+                String ratioAsOf = ordinal >= 0 ? fxRates.asOfText(ordinal) : null;
                 
-                currencies.put(code, estimatedCurrency);
-                log.debug("Added estimated currency: {}, rate: {}", code, estimatedRate);
+                currencies.put(code, CurrencyQuote.estimate(code, estimatedRate, name, ratioAsOf));
+                if (log.isDebugEnabled()) {
+                    log.debug("Added estimated currency: {}, rate: {}", code, estimatedRate);
+                }
             }
         });
     }
@@ -0,0 +1,103 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.BitcoinPriceSnapshot;
+import com.currency.demo.model.Conversion;
+import com.currency.demo.model.CurrencyQuote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Converts amounts between any two currencies in the current price snapshot.
+ * Cross rates are derived from each currency's bitcoin price (live or estimated) and rebuilt only
+ * when a new snapshot is published.
+ */
+@Service
+public class ConversionService {
+    private static final Logger log = LoggerFactory.getLogger(ConversionService.class);
+
+    private final PriceSnapshotService priceSnapshotService;
+    private final AtomicReference<ConversionTable> current = new AtomicReference<>();
+
+    @Autowired
+    public ConversionService(PriceSnapshotService priceSnapshotService) {
+        this.priceSnapshotService = priceSnapshotService;
+    }
+
+    /**
+     * Convert an amount, or empty if either currency has no rate in the current snapshot
+     */
+    public Optional<Conversion> convert(String from, String to, double amount) {
+        ConversionTable table = getTable();
+        int fromOrdinal = table.ordinalOf(from);
+        int toOrdinal = table.ordinalOf(to);
+        if (fromOrdinal < 0 || toOrdinal < 0) {
+            return Optional.empty();
+        }
+        double rate = table.rate(fromOrdinal, toOrdinal);
+        return Optional.of(new Conversion(table.codeAt(fromOrdinal), table.codeAt(toOrdinal), amount, rate,
+                amount * rate, table.isEstimated(fromOrdinal, toOrdinal), table.getFetchedAt()));
+    }
+
+    /**
+     * Cross-rate table for the current snapshot, built on first use after each snapshot change
+     */
+    public ConversionTable getTable() {
+        BitcoinPriceSnapshot snapshot = priceSnapshotService.getSnapshot();
+        ConversionTable table = current.get();
+        if (table != null && table.getSnapshotVersion() == snapshot.getVersion()) {
+            return table;
+        }
+        ConversionTable built = build(snapshot, table);
+        // Keep whichever table belongs to the newer snapshot if another thread got there first
+        return current.updateAndGet(previous -> previous == null
+                || previous.getSnapshotVersion() < built.getSnapshotVersion() ? built : previous);
+    }
+
+    private ConversionTable build(BitcoinPriceSnapshot snapshot, ConversionTable previous) {
+        Map<String, CurrencyQuote> currencies = snapshot.getTransformedData().currencies();
+        List<String> codes = new ArrayList<>(currencies.size());
+        List<Double> btcRates = new ArrayList<>(currencies.size());
+        List<Boolean> estimated = new ArrayList<>(currencies.size());
+        Set<String> seen = new HashSet<>();
+        currencies.forEach((code, quote) -> {
+            double rate = quote.rate();
+            if (!(rate > 0) || Double.isInfinite(rate)) {
+                log.debug("Skipping currency {} without a usable rate for conversions", code);
+                return;
+            }
+            // Codes are matched case-insensitively, so "usd" and "USD" would collide
+            if (!CurrencyCodeIndex.isCode(code) || !seen.add(code.toUpperCase(Locale.ROOT))) {
+                log.debug("Skipping currency {} without a distinct three-letter code", code);
+                return;
+            }
+            codes.add(code);
+            btcRates.add(rate);
+            estimated.add(quote.estimated());
+        });
+
+        // The code set rarely changes between snapshots; reuse the previous index when it has not
+        CurrencyCodeIndex index = previous != null && previous.getIndex().hasCodes(codes)
+                ? previous.getIndex()
+                : CurrencyCodeIndex.of(codes);
+        double[] rates = new double[codes.size()];
+        boolean[] estimatedFlags = new boolean[codes.size()];
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] = btcRates.get(i);
+            estimatedFlags[i] = estimated.get(i);
+        }
+        log.debug("Built conversion table for snapshot version {} with {} currencies",
+                snapshot.getVersion(), rates.length);
+        return new ConversionTable(snapshot.getVersion(), snapshot.getFetchedAt(), index, rates, estimatedFlags);
+    }
+}
@@ -0,0 +1,90 @@
+package com.currency.demo.service;
+
+import java.time.Instant;
+
+/**
+ * Cross rates between every pair of currencies in one price snapshot.
+ * Rates are kept in flat primitive arrays indexed by currency ordinal, and the full n x n matrix is computed
+ * once when the table is built, so a conversion is two array reads and a multiplication.
+ */
+public final class ConversionTable {
+
+    private final long snapshotVersion;
+    private final Instant fetchedAt;
+    private final CurrencyCodeIndex index;
+    private final boolean[] estimated;
+    // crossRates[from * n + to] = units of "to" per unit of "from"
+    private final double[] crossRates;
+
+    /**
+     * @param btcRates  price of one bitcoin in each currency, by ordinal
+     * @param estimated whether each currency's rate is an estimate rather than a Coindesk quote, by ordinal
+     */
+    ConversionTable(long snapshotVersion, Instant fetchedAt, CurrencyCodeIndex index,
+                    double[] btcRates, boolean[] estimated) {
+        int n = index.size();
+        if (btcRates.length != n || estimated.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " rates");
+        }
+        this.snapshotVersion = snapshotVersion;
+        this.fetchedAt = fetchedAt;
+        this.index = index;
+        this.estimated = estimated.clone();
+        this.crossRates = new double[n * n];
+        for (int from = 0; from < n; from++) {
+            for (int to = 0; to < n; to++) {
+                // Both rates are per bitcoin: 1 FROM = (TO per BTC) / (FROM per BTC) TO
+                crossRates[from * n + to] = from == to ? 1.0 : btcRates[to] / btcRates[from];
+            }
+        }
+    }
+
+    /**
+     * Ordinal of the currency code, or -1 if this table has no rate for it
+     */
+    public int ordinalOf(CharSequence code) {
+        return index.ordinalOf(code);
+    }
+
+    public int ordinalOf(char[] chars, int offset, int length) {
+        return index.ordinalOf(chars, offset, length);
+    }
+
+    /**
+     * Units of the target currency per unit of the source currency
+     */
+    public double rate(int from, int to) {
+        return crossRates[from * index.size() + to];
+    }
+
+    public double convert(int from, int to, double amount) {
+        return amount * rate(from, to);
+    }
+
+    /**
+     * Whether a conversion between the two currencies relies on an estimated rate
+     */
+    public boolean isEstimated(int from, int to) {
+        return estimated[from] || estimated[to];
+    }
+
+    public String codeAt(int ordinal) {
+        return index.codeAt(ordinal);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    CurrencyCodeIndex getIndex() {
+        return index;
+    }
+
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+}
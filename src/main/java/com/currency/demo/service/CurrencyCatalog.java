@@ -0,0 +1,103 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.Currency;
+import com.currency.demo.repository.CurrencyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Read-optimized, immutable in-memory view of the currency table (code to Chinese name).
+ * Loaded once on first use and rebuilt whenever currency data is committed.
+ */
+@Component
+public class CurrencyCatalog {
+    private static final Logger log = LoggerFactory.getLogger(CurrencyCatalog.class);
+
+    private final CurrencyRepository currencyRepository;
+    private final AtomicReference<Entries> current = new AtomicReference<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    @Autowired
+    public CurrencyCatalog(CurrencyRepository currencyRepository) {
+        this.currencyRepository = currencyRepository;
+    }
+
+    /**
+     * Get the current catalog entries, loading them on first use
+     */
+    public Entries getEntries() {
+        Entries entries = current.get();
+        return entries != null ? entries : reload();
+    }
+
+    /**
+     * Get the current catalog entries without loading them (null if not loaded yet)
+     */
+    public Entries getLoadedEntries() {
+        return current.get();
+    }
+
+    /**
+     * Rebuild the catalog from the database and publish it
+     */
+    public Entries reload() {
+        // Take the version before reading so a slower, older reload can never win
+        long version = versionSequence.incrementAndGet();
+
+        Map<String, String> namesByCode = new LinkedHashMap<>();
+        for (Currency currency : currencyRepository.findAll(Sort.by("id"))) {
+            namesByCode.put(currency.getCode(), currency.getName());
+        }
+        Entries loaded = new Entries(version, Collections.unmodifiableMap(namesByCode));
+
+        Entries published = current.updateAndGet(
+                previous -> previous == null || previous.version() < loaded.version() ? loaded : previous);
+        log.debug("Loaded currency catalog version {} with {} currencies", published.version(), namesByCode.size());
+        return published;
+    }
+
+    /**
+     * Rebuild the catalog once the current transaction commits (or immediately if there is none)
+     */
+    public void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+    }
+
+    /**
+     * Immutable catalog contents; currencies are kept in table (id) order
+     */
+    public record Entries(long version, Map<String, String> namesByCode) {
+
+        public String getName(String code) {
+            return namesByCode.get(code);
+        }
+
+        public boolean contains(String code) {
+            return namesByCode.containsKey(code);
+        }
+
+        public int size() {
+            return namesByCode.size();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.currency.demo.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dense ordinals for three-letter currency codes.
+ * A code is resolved by arithmetic on its letters into a 26^3 slot table, so lookups need no hashing,
+ * no map and no String allocation; lowercase letters are accepted.
+ */
+public final class CurrencyCodeIndex {
+
+    private static final int LETTERS = 26;
+    private static final int SLOTS = LETTERS * LETTERS * LETTERS;
+
+    // ordinal + 1 per slot; 0 means the code is not in the index
+    private final short[] ordinalBySlot = new short[SLOTS];
+    private final String[] codes;
+
+    private CurrencyCodeIndex(String[] codes) {
+        this.codes = codes;
+        for (int ordinal = 0; ordinal < codes.length; ordinal++) {
+            int slot = slotOf(codes[ordinal]);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Not a three-letter currency code: " + codes[ordinal]);
+            }
+            if (ordinalBySlot[slot] != 0) {
+                throw new IllegalArgumentException("Duplicate currency code: " + codes[ordinal]);
+            }
+            ordinalBySlot[slot] = (short) (ordinal + 1);
+        }
+    }
+
+    /**
+     * Index the codes in the given order; a code's ordinal is its position in the list
+     */
+    public static CurrencyCodeIndex of(List<String> codes) {
+        if (codes.size() >= Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many currency codes: " + codes.size());
+        }
+        return new CurrencyCodeIndex(codes.toArray(String[]::new));
+    }
+
+    /**
+     * Ordinal of the code, or -1 if it is not indexed or not a three-letter code
+     */
+    public int ordinalOf(CharSequence code) {
+        int slot = slotOf(code);
+        return slot < 0 ? -1 : ordinalBySlot[slot] - 1;
+    }
+
+    /**
+     * Ordinal of the code held in chars[offset, offset + length), e.g. a JSON parser's text buffer
+     */
+    public int ordinalOf(char[] chars, int offset, int length) {
+        if (length != 3) {
+            return -1;
+        }
+        int first = letterOf(chars[offset]);
+        int second = letterOf(chars[offset + 1]);
+        int third = letterOf(chars[offset + 2]);
+        if (first < 0 || second < 0 || third < 0) {
+            return -1;
+        }
+        return ordinalBySlot[(first * LETTERS + second) * LETTERS + third] - 1;
+    }
+
+    public String codeAt(int ordinal) {
+        return codes[ordinal];
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    /**
+     * Whether this index assigns the same ordinals to the same codes as the given list
+     */
+    public boolean hasCodes(List<String> codes) {
+        return Arrays.asList(this.codes).equals(codes);
+    }
+
+    /**
+     * Whether the value is three ASCII letters
+     */
+    public static boolean isCode(CharSequence code) {
+        return slotOf(code) >= 0;
+    }
+
+    private static int slotOf(CharSequence code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        int slot = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = letterOf(code.charAt(i));
+            if (letter < 0) {
+                return -1;
+            }
+            slot = slot * LETTERS + letter;
+        }
+        return slot;
+    }
+
+    private static int letterOf(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        return -1;
+    }
+}
@@ -1,26 +1,51 @@
 package com.currency.demo.service;
 
 import com.currency.demo.model.Currency;
+import com.currency.demo.model.CurrencyPage;
+import com.currency.demo.model.CurrencySummary;
 import com.currency.demo.repository.CurrencyRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class CurrencyService {
 
     private final CurrencyRepository currencyRepository;
+    private final CurrencyCatalog currencyCatalog;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     @Autowired
-    public CurrencyService(CurrencyRepository currencyRepository) {
+    public CurrencyService(CurrencyRepository currencyRepository, CurrencyCatalog currencyCatalog,
+                           @Value("${currency.page.default-size:50}") int defaultPageSize,
+                           @Value("${currency.page.max-size:500}") int maxPageSize) {
         this.currencyRepository = currencyRepository;
+        this.currencyCatalog = currencyCatalog;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
-    public List<Currency> getAllCurrencies() {
-        return currencyRepository.findAll();
+    /**
+     * Page of full currencies ordered by id, starting after the given id (null for the first page)
+     */
+    @Transactional(readOnly = true)
+    public CurrencyPage<Currency> getCurrencies(Long afterId, Integer size) {
+        int pageSize = pageSize(size);
+        List<Currency> rows = currencyRepository.findCurrenciesByIdGreaterThanOrderByIdAsc(
+                afterId != null ? afterId : 0L, Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, currency -> currency.getId().toString());
     }
 
     public Optional<Currency> getCurrencyById(Long id) {
@@ -31,9 +56,44 @@ public class CurrencyService {
         return currencyRepository.findByCode(code);
     }
 
+    /**
+     * Largest number of currencies returned by one list request, including lookups by code
+     */
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public List<Currency> getCurrenciesByCodes(Collection<String> codes) {
+        return currencyRepository.findByCodeIn(codes);
+    }
+
+    /**
+     * Page of currencies ordered by code, starting after the given code (null for the first page)
+     */
+    @Transactional(readOnly = true)
+    public CurrencyPage<CurrencySummary> getCurrencyPageByCode(String afterCode, Integer size) {
+        int pageSize = pageSize(size);
+        List<CurrencySummary> rows = currencyRepository.findByCodeGreaterThanOrderByCodeAsc(
+                afterCode != null ? afterCode : "", Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, CurrencySummary::code);
+    }
+
+    /**
+     * Page of currencies ordered by id, starting after the given id (null for the first page)
+     */
+    @Transactional(readOnly = true)
+    public CurrencyPage<CurrencySummary> getCurrencyPageById(Long afterId, Integer size) {
+        int pageSize = pageSize(size);
+        List<CurrencySummary> rows = currencyRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId != null ? afterId : 0L, Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, summary -> summary.id().toString());
+    }
+
     @Transactional
     public Currency createCurrency(Currency currency) {
-        return currencyRepository.save(currency);
+        Currency savedCurrency = currencyRepository.save(currency);
+        currencyCatalog.reloadAfterCommit();
+        return savedCurrency;
     }
 
     @Transactional
@@ -43,7 +103,9 @@ public class CurrencyService {
             Currency updatedCurrency = existingCurrency.get();
             updatedCurrency.setCode(currency.getCode());
             updatedCurrency.setName(currency.getName());
-            return currencyRepository.save(updatedCurrency);
+            Currency savedCurrency = currencyRepository.save(updatedCurrency);
+            currencyCatalog.reloadAfterCommit();
+            return savedCurrency;
         }
         return null;
     }
@@ -51,5 +113,68 @@ public class CurrencyService {
     @Transactional
     public void deleteCurrency(Long id) {
         currencyRepository.deleteById(id);
+        currencyCatalog.reloadAfterCommit();
+    }
+
+    /**
+     * Insert all currencies in one transaction; inserts are sent in JDBC batches
+     */
+    @Transactional
+    public List<Currency> createCurrencies(List<Currency> currencies) {
+        List<Currency> savedCurrencies = currencyRepository.saveAll(currencies);
+        currencyCatalog.reloadAfterCommit();
+        return savedCurrencies;
+    }
+
+    /**
+     * Insert or update currencies by code; existing rows are loaded with one query and updated in batches.
+     * If a code appears more than once, the last entry wins.
+     */
+    @Transactional
+    public List<Currency> upsertCurrencies(List<Currency> currencies) {
+        Map<String, Currency> requested = new LinkedHashMap<>();
+        currencies.forEach(currency -> requested.put(currency.getCode(), currency));
+
+        Map<String, Currency> existing = currencyRepository.findByCodeIn(requested.keySet()).stream()
+                .collect(Collectors.toMap(Currency::getCode, Function.identity()));
+        List<Currency> upserted = new ArrayList<>(requested.size());
+        requested.forEach((code, currency) -> {
+            Currency target = existing.get(code);
+            if (target == null) {
+                target = new Currency(code, currency.getName());
+            } else {
+                target.setName(currency.getName());
+            }
+            upserted.add(target);
+        });
+
+        List<Currency> savedCurrencies = currencyRepository.saveAll(upserted);
+        currencyCatalog.reloadAfterCommit();
+        return savedCurrencies;
+    }
+
+    /**
+     * Delete currencies by id with a single statement
+     */
+    @Transactional
+    public void deleteCurrencies(Collection<Long> ids) {
+        currencyRepository.deleteAllByIdInBatch(ids);
+        currencyCatalog.reloadAfterCommit();
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    // One extra row is fetched to tell whether another page follows without a count query
+    private static <T> CurrencyPage<T> toPage(List<T> rows, int pageSize, Function<T, String> cursor) {
+        if (rows.size() <= pageSize) {
+            return new CurrencyPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new CurrencyPage<>(List.copyOf(items), cursor.apply(items.get(pageSize - 1)));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package com.currency.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refreshes the FX ratios from their source in the background at a fixed interval
+ */
+@Component
+@ConditionalOnProperty(name = "coindesk.snapshot.scheduled", havingValue = "true", matchIfMissing = true)
+public class FxRatePoller {
+    private static final Logger log = LoggerFactory.getLogger(FxRatePoller.class);
+
+    private final FxRateService fxRateService;
+
+    @Autowired
+    public FxRatePoller(FxRateService fxRateService) {
+        this.fxRateService = fxRateService;
+    }
+
+    /**
+     * Re-read the source once startup has completed.
+     * The first table is already loaded by FxRateService.afterSingletonsInstantiated (from the database, or from the
+     * source when the database has none), so this only picks up ratios that changed while the application was down.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        poll();
+    }
+
+    @Scheduled(fixedDelayString = "${currency.fx.refresh-interval-ms:3600000}",
+            initialDelayString = "${currency.fx.refresh-interval-ms:3600000}")
+    public void poll() {
+        try {
+            fxRateService.refresh();
+        } catch (Exception e) {
+            // Keep estimating with the previous ratios; the next poll will try again
+            log.error("Failed to refresh FX ratios from {}", fxRateService.getSource(), e);
+        }
+    }
+}
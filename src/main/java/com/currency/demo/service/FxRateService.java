@@ -0,0 +1,207 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.FxRate;
+import com.currency.demo.repository.FxRateRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * FX ratios used to estimate prices for currencies Coindesk does not quote.
+ * Ratios are read from a configurable source (classpath, file or http URL), persisted in the fx_rate
+ * table and published as an immutable {@link FxRateTable} that is swapped atomically on every refresh.
+ * The first table is built at startup, so price transforms only ever read the published table.
+ */
+@Service
+public class FxRateService implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(FxRateService.class);
+
+    private final FxRateRepository fxRateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final String source;
+    private final double defaultRatio;
+    private final AtomicReference<FxRateTable> current = new AtomicReference<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+    // Refreshes write the fx_rate table; a lock rather than synchronized so virtual threads are not pinned
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @Autowired
+    public FxRateService(FxRateRepository fxRateRepository,
+                         TransactionTemplate transactionTemplate,
+                         ResourceLoader resourceLoader,
+                         ObjectMapper objectMapper,
+                         @Value("${currency.fx.source:classpath:fx-rates.json}") String source,
+                         @Value("${currency.fx.default-ratio:0.5}") double defaultRatio) {
+        this.fxRateRepository = fxRateRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.source = source;
+        this.defaultRatio = defaultRatio;
+    }
+
+    /**
+     * Load the first table once every bean (including the database) is ready, before requests are served
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        loadInitial();
+    }
+
+    /**
+     * Get the current ratios; never does I/O (empty, so every estimate uses the default ratio, until loaded)
+     */
+    public FxRateTable getTable() {
+        FxRateTable table = current.get();
+        return table != null ? table : FxRateTable.EMPTY;
+    }
+
+    /**
+     * Get the current ratios without loading them (null if not loaded yet)
+     */
+    public FxRateTable getLoadedTable() {
+        return current.get();
+    }
+
+    /**
+     * Ratio used for currencies that have no entry in the table
+     */
+    public double getDefaultRatio() {
+        return defaultRatio;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Read the source, store its ratios and publish them; the current table is kept if the source fails
+     */
+    public FxRateTable refresh() {
+        List<FxRate> fetched = readSource();
+        refreshLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> store(fetched));
+            FxRateTable table = reload();
+            log.info("Refreshed {} FX ratios from {}", table.size(), source);
+            return table;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild the table from the database and publish it
+     */
+    public FxRateTable reload() {
+        // Take the version before reading so a slower, older reload can never win
+        long version = versionSequence.incrementAndGet();
+        FxRateTable loaded = new FxRateTable(version, fxRateRepository.findAll(Sort.by("id")));
+        return publish(loaded);
+    }
+
+    /**
+     * Publish the stored ratios, or read the source first if the table is empty
+     */
+    FxRateTable loadInitial() {
+        refreshLock.lock();
+        try {
+            FxRateTable table = reload();
+            return table.size() > 0 ? table : refresh();
+        } catch (RuntimeException e) {
+            // Estimates fall back to the default ratio until a refresh succeeds
+            log.error("Failed to load FX ratios from {}", source, e);
+            return publish(FxRateTable.EMPTY);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private FxRateTable publish(FxRateTable table) {
+        return current.updateAndGet(
+                previous -> previous == null || previous.getVersion() < table.getVersion() ? table : previous);
+    }
+
+    /**
+     * Upsert the fetched ratios and drop currencies the source no longer lists
+     */
+    private void store(List<FxRate> fetched) {
+        Instant now = Instant.now();
+        Map<String, FxRate> existing = fxRateRepository.findAll().stream()
+                .collect(Collectors.toMap(FxRate::getCode, Function.identity()));
+        List<FxRate> changed = new ArrayList<>(fetched.size());
+        for (FxRate rate : fetched) {
+            FxRate stored = existing.remove(rate.getCode());
+            // A source without its own timestamp only restamps ratios that actually changed
+            Instant asOf = rate.getAsOf() != null ? rate.getAsOf()
+                    : stored != null && stored.getRatio() == rate.getRatio() ? stored.getAsOf() : now;
+            if (stored == null) {
+                rate.setAsOf(asOf);
+                changed.add(rate);
+            } else if (stored.getRatio() != rate.getRatio() || !stored.getAsOf().equals(asOf)) {
+                stored.setRatio(rate.getRatio());
+                stored.setAsOf(asOf);
+                changed.add(stored);
+            }
+        }
+        fxRateRepository.deleteAllInBatch(existing.values());
+        fxRateRepository.saveAll(changed);
+    }
+
+    /**
+     * Parse {"asOf": "2025-03-29T00:00:00Z", "ratios": {"JPY": 0.009, ...}}; without asOf the ratios are
+     * stamped when they are first stored or change
+     */
+    List<FxRate> readSource() {
+        Resource resource = resourceLoader.getResource(source);
+        JsonNode root;
+        try (InputStream in = resource.getInputStream()) {
+            root = objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read FX ratios from " + source, e);
+        }
+        JsonNode ratios = root == null ? null : root.get("ratios");
+        if (ratios == null || !ratios.isObject()) {
+            throw new IllegalStateException("FX source " + source + " has no \"ratios\" object");
+        }
+        Instant asOf = root.hasNonNull("asOf") ? Instant.parse(root.get("asOf").asText()) : null;
+
+        Map<String, FxRate> rates = new LinkedHashMap<>();
+        ratios.fields().forEachRemaining(field -> {
+            String code = field.getKey().toUpperCase(Locale.ROOT);
+            double ratio = field.getValue().asDouble(Double.NaN);
+            if (!CurrencyCodeIndex.isCode(code) || !(ratio > 0) || Double.isInfinite(ratio)) {
+                log.warn("Skipping invalid FX ratio {}={} from {}", field.getKey(), field.getValue(), source);
+                return;
+            }
+            rates.put(code, new FxRate(code, ratio, asOf));
+        });
+        return new ArrayList<>(rates.values());
+    }
+}
@@ -0,0 +1,69 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.FxRate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable FX ratios indexed by currency ordinal, so estimating a price is an array lookup.
+ * Each ratio keeps the time its source published it, preformatted for the response payload.
+ */
+public final class FxRateTable {
+
+    static final FxRateTable EMPTY = new FxRateTable(0, List.of());
+
+    private final long version;
+    private final CurrencyCodeIndex index;
+    private final double[] ratios;
+    private final Instant[] asOf;
+    private final String[] asOfText;
+
+    FxRateTable(long version, List<FxRate> rates) {
+        this.version = version;
+        this.index = CurrencyCodeIndex.of(rates.stream().map(FxRate::getCode).toList());
+        this.ratios = new double[rates.size()];
+        this.asOf = new Instant[rates.size()];
+        this.asOfText = new String[rates.size()];
+        for (int ordinal = 0; ordinal < rates.size(); ordinal++) {
+            FxRate rate = rates.get(ordinal);
+            ratios[ordinal] = rate.getRatio();
+            asOf[ordinal] = rate.getAsOf();
+            asOfText[ordinal] = rate.getAsOf().toString();
+        }
+    }
+
+    /**
+     * Ordinal of the code, or -1 if there is no ratio for it
+     */
+    public int ordinalOf(CharSequence code) {
+        return index.ordinalOf(code);
+    }
+
+    public double ratio(int ordinal) {
+        return ratios[ordinal];
+    }
+
+    public Instant asOf(int ordinal) {
+        return asOf[ordinal];
+    }
+
+    /**
+     * Publication time of the ratio in ISO-8601 form
+     */
+    public String asOfText(int ordinal) {
+        return asOfText[ordinal];
+    }
+
+    public String codeAt(int ordinal) {
+        return index.codeAt(ordinal);
+    }
+
+    public int size() {
+        return ratios.length;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
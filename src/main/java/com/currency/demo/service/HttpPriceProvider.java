@@ -0,0 +1,61 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.CoindeskResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Price provider serving a Coindesk-compatible current-price endpoint over HTTP
+ */
+public class HttpPriceProvider implements PriceProvider {
+
+    private final String name;
+    private final URI url;
+    private final double weight;
+    private final RestTemplate restTemplate;
+    private final CoindeskResponseParser responseParser;
+
+    public HttpPriceProvider(String name, URI url, double weight, RestTemplate restTemplate,
+                             CoindeskResponseParser responseParser) {
+        if (!(weight > 0)) {
+            throw new IllegalArgumentException("Provider weight must be positive: " + name);
+        }
+        this.name = name;
+        this.url = url;
+        this.weight = weight;
+        this.restTemplate = restTemplate;
+        this.responseParser = responseParser;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public double getWeight() {
+        return weight;
+    }
+
+    public URI getUrl() {
+        return url;
+    }
+
+    @Override
+    public CoindeskResponse fetch() {
+        // Stream the body straight into the typed model
+        CoindeskResponse response = restTemplate.execute(url, HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                clientResponse -> responseParser.parse(clientResponse.getBody()));
+
+        // Incomplete data counts as a failure for the circuit breaker and the quorum
+        if (!CoindeskService.isValidResponse(response)) {
+            throw new InvalidUpstreamResponseException(name + " returned incomplete data");
+        }
+        return response;
+    }
+}
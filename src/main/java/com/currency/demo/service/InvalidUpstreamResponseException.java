@@ -0,0 +1,13 @@
+package com.currency.demo.service;
+
+/**
+ * Coindesk answered, but without the fields the transform needs
+ */
+public class InvalidUpstreamResponseException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidUpstreamResponseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,35 @@
+package com.currency.demo.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate-limits a repeated log message to one line per interval.
+ * Occurrences in between are counted instead of logged and reported with the next line that is let through.
+ */
+public class LogSampler {
+
+    private final long intervalNanos;
+    private final AtomicLong nextLogAt;
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogSampler(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+        this.nextLogAt = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Record one occurrence.
+     * Returns the number of occurrences suppressed since the last logged one if this one should be logged,
+     * or -1 if it should be suppressed.
+     */
+    public long sample() {
+        long now = System.nanoTime();
+        long next = nextLogAt.get();
+        if (now - next >= 0 && nextLogAt.compareAndSet(next, now + intervalNanos)) {
+            return suppressed.getAndSet(0);
+        }
+        suppressed.incrementAndGet();
+        return -1;
+    }
+}
@@ -0,0 +1,371 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.CoindeskResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Fetches prices from every configured provider concurrently and combines them into one composite quote.
+ * Returns as soon as a quorum of providers has answered, so the latency follows the quorum-th fastest
+ * provider rather than the slowest; each currency's rate is the weighted median of the answers received.
+ * With a single provider the call is made directly on the calling thread.
+ */
+@Component
+public class PriceAggregator {
+    private static final Logger log = LoggerFactory.getLogger(PriceAggregator.class);
+
+    private final List<PriceProvider> providers;
+    private final int quorum;
+    private final Duration timeout;
+    private final CoindeskMetrics metrics;
+    // Provider calls block on HTTP; one virtual thread each
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public PriceAggregator(RestTemplate restTemplate, CoindeskResponseParser responseParser, CoindeskMetrics metrics,
+                           @Value("${coindesk.providers.urls:${coindesk.api-url:https://api.coindesk.com/v1/bpi/currentprice.json}}")
+                           List<URI> urls,
+                           @Value("${coindesk.providers.names:}") List<String> names,
+                           @Value("${coindesk.providers.weights:}") List<Double> weights,
+                           @Value("${coindesk.providers.quorum:0}") int quorum,
+                           @Value("${coindesk.providers.timeout-ms:2000}") long timeoutMs) {
+        this(httpProviders(urls, names, weights, restTemplate, responseParser), quorum, Duration.ofMillis(timeoutMs), metrics);
+    }
+
+    /**
+     * @param quorum answers needed before returning; 0 means a majority of the providers
+     */
+    PriceAggregator(List<PriceProvider> providers, int quorum, Duration timeout, CoindeskMetrics metrics) {
+        if (providers.isEmpty()) {
+            throw new IllegalArgumentException("At least one price provider is required");
+        }
+        int effectiveQuorum = quorum > 0 ? quorum : providers.size() / 2 + 1;
+        if (effectiveQuorum > providers.size()) {
+            throw new IllegalArgumentException(
+                    "Quorum " + effectiveQuorum + " exceeds the " + providers.size() + " configured price providers");
+        }
+        this.providers = List.copyOf(providers);
+        this.quorum = effectiveQuorum;
+        this.timeout = timeout;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Fetch a composite quote, throwing if fewer than a quorum of providers answer within the timeout
+     */
+    public CoindeskResponse fetch() {
+        if (providers.size() == 1) {
+            return fetchFrom(providers.get(0));
+        }
+
+        QuorumCall call = new QuorumCall(providers.size(), quorum);
+        List<Future<?>> calls = new ArrayList<>(providers.size());
+        for (PriceProvider provider : providers) {
+            calls.add(executor.submit(() -> {
+                try {
+                    call.succeeded(new Quote(provider, fetchFrom(provider)));
+                } catch (RuntimeException e) {
+                    log.debug("Price provider {} failed: {}", provider.getName(), e.toString());
+                    call.failed(e);
+                }
+            }));
+        }
+        boolean decided = false;
+        try {
+            decided = call.await(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Providers that have not answered by now are not waited for
+            calls.forEach(pending -> pending.cancel(true));
+        }
+
+        List<Quote> quotes = call.quotes();
+        if (quotes.size() < quorum) {
+            String message = String.format("Only %d of %d price providers answered, quorum is %d",
+                    quotes.size(), providers.size(), quorum);
+            if (decided) {
+                throw new IllegalStateException(message, call.lastFailure());
+            }
+            // Missing the deadline is recorded as a timeout, whatever the providers that did answer reported
+            TimeoutException deadline = new TimeoutException("No quorum within " + timeout.toMillis() + " ms");
+            if (call.lastFailure() != null) {
+                deadline.addSuppressed(call.lastFailure());
+            }
+            throw new IllegalStateException(message, deadline);
+        }
+        return composite(quotes);
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #fetch()}: each provider is called through the given function, and the
+     * same quorum, deadline and weighted median apply, so both stacks publish the same composite quote
+     */
+    public Mono<CoindeskResponse> fetchAsync(Function<PriceProvider, Mono<CoindeskResponse>> call) {
+        if (providers.size() == 1) {
+            return timed(providers.get(0), call);
+        }
+
+        AtomicInteger answered = new AtomicInteger();
+        AtomicReference<Throwable> lastFailure = new AtomicReference<>();
+        List<Mono<Quote>> calls = new ArrayList<>(providers.size());
+        for (PriceProvider provider : providers) {
+            calls.add(timed(provider, call)
+                    .map(response -> new Quote(provider, response))
+                    .doOnNext(quote -> answered.incrementAndGet())
+                    .onErrorResume(e -> {
+                        log.debug("Price provider {} failed: {}", provider.getName(), e.toString());
+                        lastFailure.set(e);
+                        return Mono.empty();
+                    }));
+        }
+        // Providers still pending once the quorum has answered, or at the deadline, are cancelled
+        return Flux.merge(calls)
+                .take(quorum)
+                .collectList()
+                .timeout(timeout)
+                .onErrorMap(TimeoutException.class, deadline -> {
+                    if (lastFailure.get() != null) {
+                        deadline.addSuppressed(lastFailure.get());
+                    }
+                    return new IllegalStateException(String.format(
+                            "Only %d of %d price providers answered, quorum is %d",
+                            answered.get(), providers.size(), quorum), deadline);
+                })
+                .map(quotes -> {
+                    if (quotes.size() < quorum) {
+                        throw new IllegalStateException(String.format(
+                                "Only %d of %d price providers answered, quorum is %d",
+                                quotes.size(), providers.size(), quorum), lastFailure.get());
+                    }
+                    return composite(quotes);
+                });
+    }
+
+    public List<PriceProvider> getProviders() {
+        return providers;
+    }
+
+    public int getQuorum() {
+        return quorum;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CoindeskResponse fetchFrom(PriceProvider provider) {
+        long start = System.nanoTime();
+        CoindeskMetrics.UpstreamOutcome outcome = CoindeskMetrics.UpstreamOutcome.SUCCESS;
+        try {
+            return provider.fetch();
+        } catch (RuntimeException e) {
+            outcome = CoindeskMetrics.outcomeOf(e);
+            throw e;
+        } finally {
+            metrics.providerTimer(provider.getName(), outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Mono<CoindeskResponse> timed(PriceProvider provider, Function<PriceProvider, Mono<CoindeskResponse>> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.apply(provider)
+                    .doOnSuccess(response -> record(provider, CoindeskMetrics.UpstreamOutcome.SUCCESS, start))
+                    .doOnError(e -> record(provider, CoindeskMetrics.outcomeOf(e), start));
+        });
+    }
+
+    private void record(PriceProvider provider, CoindeskMetrics.UpstreamOutcome outcome, long startNanos) {
+        metrics.providerTimer(provider.getName(), outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Combine the answers: the fastest answer supplies the metadata, each currency gets the weighted median
+     * of the rates reported for it
+     */
+    static CoindeskResponse composite(List<Quote> quotes) {
+        CoindeskResponse first = quotes.get(0).response();
+        Map<String, List<Quote>> quotesByCode = new LinkedHashMap<>();
+        for (Quote quote : quotes) {
+            quote.response().getBpi().keySet()
+                    .forEach(code -> quotesByCode.computeIfAbsent(code, key -> new ArrayList<>()).add(quote));
+        }
+
+        DecimalFormat rateFormat = new DecimalFormat("#,##0.0000", DecimalFormatSymbols.getInstance(Locale.US));
+        Map<String, CoindeskResponse.BPI> bpi = new LinkedHashMap<>();
+        quotesByCode.forEach((code, reporting) -> {
+            double[] rates = new double[reporting.size()];
+            double[] weights = new double[reporting.size()];
+            for (int i = 0; i < rates.length; i++) {
+                rates[i] = reporting.get(i).response().getBpi().get(code).getRateFloat();
+                weights[i] = reporting.get(i).provider().getWeight();
+            }
+            double rate = weightedMedian(rates, weights);
+            CoindeskResponse.BPI source = reporting.get(0).response().getBpi().get(code);
+            bpi.put(code, new CoindeskResponse.BPI(source.getCode(), source.getSymbol(), rateFormat.format(rate),
+                    source.getDescription(), rate));
+        });
+
+        CoindeskResponse composite = new CoindeskResponse();
+        composite.setTime(first.getTime());
+        composite.setDisclaimer(first.getDisclaimer());
+        composite.setChartName(first.getChartName());
+        composite.setBpi(bpi);
+        return composite;
+    }
+
+    /**
+     * Value at which half of the total weight lies on either side; when the halfway point falls exactly
+     * between two values (e.g. an even number of equal weights) their mean is returned
+     */
+    static double weightedMedian(double[] values, double[] weights) {
+        Integer[] order = new Integer[values.length];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingDouble(i -> values[i]));
+
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double half = total / 2;
+        double cumulative = 0;
+        for (int i = 0; i < order.length; i++) {
+            cumulative += weights[order[i]];
+            if (Math.abs(cumulative - half) <= 1e-9 * total && i + 1 < order.length) {
+                return (values[order[i]] + values[order[i + 1]]) / 2;
+            }
+            if (cumulative > half) {
+                return values[order[i]];
+            }
+        }
+        return values[order[order.length - 1]];
+    }
+
+    static List<PriceProvider> httpProviders(List<URI> urls, List<String> names, List<Double> weights,
+                                             RestTemplate restTemplate, CoindeskResponseParser responseParser) {
+        if (!names.isEmpty() && names.size() != urls.size()) {
+            throw new IllegalArgumentException("coindesk.providers.names must have one name per provider URL");
+        }
+        if (!weights.isEmpty() && weights.size() != urls.size()) {
+            throw new IllegalArgumentException("coindesk.providers.weights must have one weight per provider URL");
+        }
+        List<PriceProvider> providers = new ArrayList<>(urls.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < urls.size(); i++) {
+            URI url = urls.get(i);
+            String name = names.isEmpty() ? providerName(url) : names.get(i);
+            // The name is the provider tag on the metrics, so two providers must never share one
+            if (!seen.add(name)) {
+                throw new IllegalArgumentException("Duplicate price provider name '" + name + "'");
+            }
+            double weight = weights.isEmpty() ? 1.0 : weights.get(i);
+            providers.add(new HttpPriceProvider(name, url, weight, restTemplate, responseParser));
+        }
+        return providers;
+    }
+
+    /**
+     * Default provider name: the URL without credentials, query or fragment, which may hold secrets
+     */
+    static String providerName(URI url) {
+        StringBuilder name = new StringBuilder();
+        if (url.getScheme() != null) {
+            name.append(url.getScheme()).append("://");
+        }
+        name.append(url.getHost());
+        if (url.getPort() != -1) {
+            name.append(':').append(url.getPort());
+        }
+        if (url.getRawPath() != null) {
+            name.append(url.getRawPath());
+        }
+        return name.toString();
+    }
+
+    /**
+     * One provider's answer
+     */
+    record Quote(PriceProvider provider, CoindeskResponse response) {
+    }
+
+    /**
+     * Collects answers until a quorum has succeeded or so many providers failed that it never can
+     */
+    private static final class QuorumCall {
+        private final int quorum;
+        private final int maxFailures;
+        private final Queue<Quote> quotes = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger successes = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicReference<Throwable> lastFailure = new AtomicReference<>();
+        private final CountDownLatch decided = new CountDownLatch(1);
+
+        QuorumCall(int providers, int quorum) {
+            this.quorum = quorum;
+            this.maxFailures = providers - quorum;
+        }
+
+        void succeeded(Quote quote) {
+            quotes.add(quote);
+            if (successes.incrementAndGet() >= quorum) {
+                decided.countDown();
+            }
+        }
+
+        void failed(Throwable failure) {
+            lastFailure.set(failure);
+            if (failures.incrementAndGet() > maxFailures) {
+                decided.countDown();
+            }
+        }
+
+        /**
+         * @return false if the deadline passed before the outcome was decided
+         */
+        boolean await(Duration timeout) throws InterruptedException {
+            return decided.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        List<Quote> quotes() {
+            return List.copyOf(quotes);
+        }
+
+        Throwable lastFailure() {
+            return lastFailure.get();
+        }
+    }
+}
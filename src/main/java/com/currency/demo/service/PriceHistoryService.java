@@ -0,0 +1,99 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.CoindeskResponse;
+import com.currency.demo.model.PriceCandle;
+import com.currency.demo.model.PricePoint;
+import com.currency.demo.model.PriceSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory history of fetched Bitcoin prices, one ring buffer per currency code.
+ * Each new upstream value is recorded once, keyed by its fetch time; samples older than the
+ * retention period are excluded from queries and eventually overwritten.
+ */
+@Service
+public class PriceHistoryService {
+
+    private static final Duration MIN_BUCKET = Duration.ofMillis(1);
+
+    private final Map<String, PriceSeries> seriesByCode = new ConcurrentHashMap<>();
+    private final int maxSamples;
+    private final Duration retention;
+
+    @Autowired
+    public PriceHistoryService(@Value("${coindesk.history.max-samples:1440}") int maxSamples,
+                               @Value("${coindesk.history.retention-ms:86400000}") long retentionMs) {
+        this.maxSamples = maxSamples;
+        this.retention = Duration.ofMillis(retentionMs);
+    }
+
+    /**
+     * Record the upstream rates of each newly published snapshot
+     */
+    @EventListener
+    public void onSnapshotPublished(PriceSnapshotPublishedEvent event) {
+        // Default data is not a real price
+        if (event.current().getSource() == PriceSource.DEFAULT) {
+            return;
+        }
+        // Re-transforms for catalog changes reuse the same fetch and are skipped by the series itself
+        Map<String, CoindeskResponse.BPI> bpi = event.current().getOriginalData().getBpi();
+        if (bpi == null) {
+            return;
+        }
+        long timestampMs = event.current().getFetchedAt().toEpochMilli();
+        bpi.forEach((code, value) -> record(code, timestampMs, value.getRateFloat()));
+    }
+
+    void record(String code, long timestampMs, double rate) {
+        seriesByCode.computeIfAbsent(code, key -> new PriceSeries(maxSamples)).add(timestampMs, rate);
+    }
+
+    /**
+     * Currency codes with recorded history
+     */
+    public Set<String> getCurrencyCodes() {
+        return Set.copyOf(seriesByCode.keySet());
+    }
+
+    /**
+     * Raw prices for a currency in [from, to), or empty if the currency has no history
+     */
+    public Optional<List<PricePoint>> getPrices(String code, Instant from, Instant to) {
+        return Optional.ofNullable(seriesByCode.get(code))
+                .map(series -> series.range(retainedFrom(from), to.toEpochMilli()));
+    }
+
+    /**
+     * OHLC and average prices for a currency in [from, to), bucketed by the given size
+     */
+    public Optional<List<PriceCandle>> getCandles(String code, Instant from, Instant to, Duration bucket) {
+        if (!isValidBucket(bucket)) {
+            throw new IllegalArgumentException("bucket must be at least 1 ms");
+        }
+        return Optional.ofNullable(seriesByCode.get(code))
+                .map(series -> series.downsample(retainedFrom(from), to.toEpochMilli(), bucket.toMillis()));
+    }
+
+    /**
+     * Buckets are whole milliseconds, so anything under 1 ms (or too large to express in ms) is rejected
+     */
+    public static boolean isValidBucket(Duration bucket) {
+        return bucket.compareTo(MIN_BUCKET) >= 0 && bucket.getSeconds() < Long.MAX_VALUE / 1000;
+    }
+
+    private long retainedFrom(Instant from) {
+        return Math.max(from.toEpochMilli(), Instant.now().minus(retention).toEpochMilli());
+    }
+}
@@ -0,0 +1,25 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.CoindeskResponse;
+
+/**
+ * A source of Bitcoin prices in the Coindesk current-price shape
+ */
+public interface PriceProvider {
+
+    /**
+     * Name used in logs and metric tags
+     */
+    String getName();
+
+    /**
+     * Relative weight of this provider's rates in the composite quote
+     */
+    double getWeight();
+
+    /**
+     * Fetch the current prices, blocking until they arrive.
+     * Throws {@link InvalidUpstreamResponseException} if the response lacks the fields the service needs.
+     */
+    CoindeskResponse fetch();
+}
@@ -0,0 +1,150 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.PriceCandle;
+import com.currency.demo.model.PricePoint;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fixed-capacity ring buffer of (timestamp, rate) samples for one currency.
+ * Samples are kept in primitive arrays in timestamp order, so a range is located by binary search
+ * and queries only touch the samples they return.
+ */
+final class PriceSeries {
+    private final long[] timestamps;
+    private final double[] rates;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Physical index of the oldest sample and number of samples held
+    private int head;
+    private int size;
+
+    PriceSeries(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.timestamps = new long[capacity];
+        this.rates = new double[capacity];
+    }
+
+    /**
+     * Append a sample, overwriting the oldest one when full.
+     * Samples not newer than the latest one are ignored to keep the series ordered.
+     */
+    boolean add(long timestampMs, double rate) {
+        lock.writeLock().lock();
+        try {
+            if (size > 0 && timestampMs <= timestamps[physical(size - 1)]) {
+                return false;
+            }
+            int capacity = timestamps.length;
+            if (size < capacity) {
+                int index = physical(size);
+                timestamps[index] = timestampMs;
+                rates[index] = rate;
+                size++;
+            } else {
+                timestamps[head] = timestampMs;
+                rates[head] = rate;
+                head = (head + 1) % capacity;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Raw samples with fromMs <= timestamp < toMs
+     */
+    List<PricePoint> range(long fromMs, long toMs) {
+        lock.readLock().lock();
+        try {
+            int start = lowerBound(fromMs);
+            int end = lowerBound(toMs);
+            List<PricePoint> points = new ArrayList<>(Math.max(0, end - start));
+            for (int i = start; i < end; i++) {
+                int index = physical(i);
+                points.add(new PricePoint(Instant.ofEpochMilli(timestamps[index]), rates[index]));
+            }
+            return points;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Samples with fromMs <= timestamp < toMs aggregated into buckets aligned to multiples of bucketMs.
+     * Empty buckets are omitted.
+     */
+    List<PriceCandle> downsample(long fromMs, long toMs, long bucketMs) {
+        if (bucketMs < 1) {
+            throw new IllegalArgumentException("bucketMs must be at least 1");
+        }
+        lock.readLock().lock();
+        try {
+            int start = lowerBound(fromMs);
+            int end = lowerBound(toMs);
+            List<PriceCandle> candles = new ArrayList<>();
+            int i = start;
+            while (i < end) {
+                int index = physical(i);
+                long bucketStart = Math.floorDiv(timestamps[index], bucketMs) * bucketMs;
+                long bucketEnd = bucketStart + bucketMs;
+                double open = rates[index];
+                double high = open;
+                double low = open;
+                double close = open;
+                double sum = 0;
+                int count = 0;
+                while (i < end && timestamps[index = physical(i)] < bucketEnd) {
+                    double rate = rates[index];
+                    high = Math.max(high, rate);
+                    low = Math.min(low, rate);
+                    close = rate;
+                    sum += rate;
+                    count++;
+                    i++;
+                }
+                candles.add(new PriceCandle(Instant.ofEpochMilli(bucketStart), open, high, low, close, sum / count, count));
+            }
+            return candles;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Logical index of the first sample with timestamp >= timestampMs
+     */
+    private int lowerBound(long timestampMs) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[physical(mid)] < timestampMs) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int physical(int logicalIndex) {
+        int index = head + logicalIndex;
+        return index >= timestamps.length ? index - timestamps.length : index;
+    }
+}
@@ -0,0 +1,45 @@
+package com.currency.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refreshes the price snapshot in the background at a fixed interval
+ */
+@Component
+@ConditionalOnProperty(name = "coindesk.snapshot.scheduled", havingValue = "true", matchIfMissing = true)
+public class PriceSnapshotPoller {
+    private static final Logger log = LoggerFactory.getLogger(PriceSnapshotPoller.class);
+
+    private final PriceSnapshotService priceSnapshotService;
+
+    @Autowired
+    public PriceSnapshotPoller(PriceSnapshotService priceSnapshotService) {
+        this.priceSnapshotService = priceSnapshotService;
+    }
+
+    /**
+     * Load the first snapshot once startup (including data initialization) has completed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        poll();
+    }
+
+    @Scheduled(fixedDelayString = "${coindesk.snapshot.refresh-interval-ms:60000}",
+            initialDelayString = "${coindesk.snapshot.refresh-interval-ms:60000}")
+    public void poll() {
+        try {
+            priceSnapshotService.refresh();
+        } catch (Exception e) {
+            // Keep serving the previous snapshot; the next poll will try again
+            log.error("Failed to refresh Bitcoin price snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.BitcoinPriceSnapshot;
+
+/**
+ * Published when a snapshot with new content becomes current.
+ * previous is null for the first snapshot.
+ */
+public record PriceSnapshotPublishedEvent(BitcoinPriceSnapshot previous, BitcoinPriceSnapshot current) {
+}
@@ -0,0 +1,210 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.BitcoinPriceSnapshot;
+import com.currency.demo.model.CoindeskResponse;
+import com.currency.demo.model.PriceSnapshot;
+import com.currency.demo.model.PriceSource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the latest Bitcoin price snapshot in memory so request threads never wait on Coindesk
+ */
+@Service
+public class PriceSnapshotService {
+    private static final Logger log = LoggerFactory.getLogger(PriceSnapshotService.class);
+
+    private final CoindeskService coindeskService;
+    private final CurrencyCatalog currencyCatalog;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SharedPriceFile sharedPriceFile;
+    private final Duration maxStaleness;
+    private final AtomicReference<BitcoinPriceSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+    // Scheduled and on-demand refreshes that overlap share one fetch and transform
+    private final SingleFlight<String, BitcoinPriceSnapshot> refreshFlights = new SingleFlight<>();
+
+    @Autowired
+    public PriceSnapshotService(CoindeskService coindeskService, CurrencyCatalog currencyCatalog,
+                                ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                                SharedPriceFile sharedPriceFile, CoindeskMetrics metrics,
+                                @Value("${coindesk.snapshot.max-staleness-ms:300000}") long maxStalenessMs) {
+        this.coindeskService = coindeskService;
+        this.currencyCatalog = currencyCatalog;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.sharedPriceFile = sharedPriceFile;
+        this.maxStaleness = Duration.ofMillis(maxStalenessMs);
+        metrics.registerFlight("snapshot-refresh", refreshFlights);
+    }
+
+    /**
+     * Get the current snapshot.
+     * Only blocks on Coindesk when nothing has been fetched yet or the snapshot is older than the staleness bound.
+     * While the upstream circuit breaker is not closed, a stale snapshot is served as is and refreshed in the background.
+     */
+    public BitcoinPriceSnapshot getSnapshot() {
+        BitcoinPriceSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            log.info("No price snapshot yet, refreshing synchronously");
+            return refresh();
+        }
+        if (isOlderThanMaxStaleness(snapshot)) {
+            if (coindeskService.isUpstreamAvailable()) {
+                log.info("Price snapshot stale, refreshing synchronously");
+                return refresh();
+            }
+            refreshInBackground();
+        }
+        if (snapshot.getCatalogVersion() != currencyCatalog.getEntries().version()) {
+            // Currency names changed since the last transform; rebuild from the cached data without calling Coindesk
+            return refreshFlights.execute("retransform",
+                    () -> publish(snapshot.getOriginalData(), snapshot.getFetchedAt(), snapshot.getSource()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get the published snapshot without refreshing it (null if nothing has been fetched yet)
+     */
+    public BitcoinPriceSnapshot getCurrentSnapshot() {
+        return current.get();
+    }
+
+    /**
+     * Whether the snapshot should be flagged as stale to clients:
+     * it was not fetched from Coindesk, or it is older than the staleness bound
+     */
+    public boolean isStale(BitcoinPriceSnapshot snapshot) {
+        return snapshot.getSource() != PriceSource.UPSTREAM || isOlderThanMaxStaleness(snapshot);
+    }
+
+    private boolean isOlderThanMaxStaleness(BitcoinPriceSnapshot snapshot) {
+        return snapshot.ageAt(Instant.now()).compareTo(maxStaleness) > 0;
+    }
+
+    /**
+     * Fetch and transform the latest data, then publish it as the current snapshot
+     */
+    public BitcoinPriceSnapshot refresh() {
+        return refreshFlights.execute("snapshot", this::fetchSnapshot);
+    }
+
+    private void refreshInBackground() {
+        // Joins any refresh already in flight, so a burst of requests starts at most one probe
+        refreshFlights.executeAsync("snapshot", () -> CompletableFuture.supplyAsync(this::fetchSnapshot));
+    }
+
+    private BitcoinPriceSnapshot fetchSnapshot() {
+        CoindeskFetch fetched = fetchLatest();
+        BitcoinPriceSnapshot latest = current.get();
+        if (fetched.source() != PriceSource.UPSTREAM && latest != null) {
+            // Coindesk is unavailable; keep serving what we already have instead of rebuilding it
+            return latest;
+        }
+        return publish(fetched.data(), fetched.fetchedAt(), fetched.source());
+    }
+
+    /**
+     * Followers take the data the leader shared on this host while it is within the staleness bound,
+     * and only call Coindesk themselves when there is none (leader not started or stopped polling).
+     * The leader shares every upstream fetch.
+     */
+    private CoindeskFetch fetchLatest() {
+        CoindeskFetch shared = sharedPriceFile.read();
+        if (shared != null && Duration.between(shared.fetchedAt(), Instant.now()).compareTo(maxStaleness) <= 0) {
+            return shared;
+        }
+        if (sharedPriceFile.isFollower()) {
+            log.debug("No fresh shared price data in {}, fetching from Coindesk", sharedPriceFile.getPath());
+        }
+        CoindeskFetch fetched = coindeskService.fetch();
+        sharedPriceFile.write(fetched);
+        return fetched;
+    }
+
+    private BitcoinPriceSnapshot publish(CoindeskResponse originalData, Instant fetchedAt, PriceSource source) {
+        long catalogVersion = currencyCatalog.getEntries().version();
+        PriceSnapshot transformedData = coindeskService.transform(originalData);
+
+        // Serialize once per version; every request for this version reuses the same bytes
+        byte[] json = toJson(transformedData);
+        String etag = etagOf(json);
+        BitcoinPriceSnapshot latest = current.get();
+        // Last-Modified only moves when the content actually changes
+        Instant lastModified = latest != null && latest.getEtag().equals(etag)
+                ? latest.getLastModified()
+                : Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        BitcoinPriceSnapshot fetched = new BitcoinPriceSnapshot(
+                versionSequence.incrementAndGet(), fetchedAt, source, catalogVersion, originalData, transformedData,
+                json, gzip(json), etag, lastModified);
+
+        // Never replace a newer snapshot with one from a slower concurrent refresh
+        BitcoinPriceSnapshot previous;
+        do {
+            previous = current.get();
+            if (previous != null && previous.getVersion() > fetched.getVersion()) {
+                return previous;
+            }
+        } while (!current.compareAndSet(previous, fetched));
+        log.debug("Published price snapshot version {}", fetched.getVersion());
+
+        // Only notify subscribers when the content actually changed
+        if (previous == null || !previous.getEtag().equals(fetched.getEtag())) {
+            eventPublisher.publishEvent(new PriceSnapshotPublishedEvent(previous, fetched));
+        }
+        return fetched;
+    }
+
+    private byte[] toJson(PriceSnapshot transformedData) {
+        try {
+            return objectMapper.writeValueAsBytes(transformedData);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize transformed price data", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Strong ETag derived from the serialized content, so identical payloads share a validator
+     */
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
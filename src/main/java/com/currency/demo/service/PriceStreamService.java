@@ -0,0 +1,399 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.BitcoinPriceSnapshot;
+import com.currency.demo.model.CurrencyQuote;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Pushes price snapshots to Server-Sent Events subscribers.
+ * Each update is serialized into one shared frame (full and changes-only) regardless of the number of
+ * subscribers. Every subscriber has a bounded buffer, so one slow consumer never holds back the others or
+ * grows memory without bound: a full-data subscriber that falls behind drops its oldest frame, and a
+ * changes-only subscriber has its backlog replaced by one snapshot of the current data, since a dropped
+ * delta would be lost for good.
+ * Subscribers are drained on a bounded pool of sender threads. One whose write has been blocked for longer
+ * than the send timeout is evicted at the next update, and when every sender thread is busy and the queue
+ * of waiting subscribers is full, the subscriber that cannot be queued is disconnected.
+ */
+@Service
+public class PriceStreamService {
+    private static final Logger log = LoggerFactory.getLogger(PriceStreamService.class);
+
+    private final PriceSnapshotService priceSnapshotService;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final ExecutorService sender;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong evictedSubscribers = new AtomicLong();
+    private final AtomicLong rejectedSubscribers = new AtomicLong();
+
+    @Autowired
+    public PriceStreamService(PriceSnapshotService priceSnapshotService, ObjectMapper objectMapper,
+                              @Value("${coindesk.stream.buffer-size:16}") int bufferSize,
+                              @Value("${coindesk.stream.timeout-ms:1800000}") long timeoutMs,
+                              @Value("${coindesk.stream.sender-threads:32}") int senderThreads,
+                              @Value("${coindesk.stream.sender-queue-size:256}") int senderQueueSize,
+                              @Value("${coindesk.stream.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.priceSnapshotService = priceSnapshotService;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        // Platform threads: emitter writes happen inside synchronized blocks and may block on slow sockets,
+        // which would pin a virtual thread's carrier. Core and maximum size are equal so a thread is started
+        // (up to the cap) before drains are queued behind a blocked one; idle threads time out.
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(senderQueueSize), runnable -> {
+            Thread thread = new Thread(runnable, "price-stream-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        this.sender = pool;
+    }
+
+    /**
+     * Open a new subscription; the current snapshot is sent first, then every update
+     */
+    public SseEmitter subscribe(boolean changesOnly) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        register(emitter, changesOnly);
+        return emitter;
+    }
+
+    void register(SseEmitter emitter, boolean changesOnly) {
+        Subscriber subscriber = new Subscriber(emitter, changesOnly);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // Registered before reading the snapshot so no update is missed; updates up to the snapshot's
+        // version are then discarded, so the first frame is never repeated
+        subscribers.add(subscriber);
+
+        subscriber.start(fullFrame("snapshot", priceSnapshotService.getSnapshot()));
+        log.debug("Price stream subscriber added, {} active", subscribers.size());
+    }
+
+    /**
+     * Fan a new snapshot out to all subscribers
+     */
+    @EventListener
+    public void onSnapshotPublished(PriceSnapshotPublishedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        Frame full = fullFrame("price", event.current());
+        Frame changes = event.previous() == null ? full : changesFrame(event.previous(), event.current());
+        // Built only if a changes-only subscriber's buffer overflows, then shared by all of them
+        Frame[] resync = new Frame[1];
+        Supplier<Frame> resyncFrame = () -> {
+            if (resync[0] == null) {
+                resync[0] = fullFrame("snapshot", event.current());
+            }
+            return resync[0];
+        };
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now)) {
+                subscriber.evict();
+            } else if (subscriber.changesOnly) {
+                subscriber.offer(changes, resyncFrame);
+            } else {
+                subscriber.offer(full, null);
+            }
+        }
+    }
+
+    /**
+     * Number of open subscriptions
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Frames discarded or collapsed into a snapshot because a subscriber's buffer was full
+     */
+    public long getDroppedFrameCount() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Subscribers disconnected because a write stayed blocked for longer than the send timeout
+     */
+    public long getEvictedSubscriberCount() {
+        return evictedSubscribers.get();
+    }
+
+    /**
+     * Subscribers disconnected because no sender thread or queue slot was free
+     */
+    public long getRejectedSubscriberCount() {
+        return rejectedSubscribers.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdownNow();
+    }
+
+    private Frame fullFrame(String name, BitcoinPriceSnapshot snapshot) {
+        String json = new String(snapshot.getTransformedJson(), StandardCharsets.UTF_8);
+        return frame(name, snapshot, json);
+    }
+
+    /**
+     * Frame with only the currencies that were added, changed or removed since the previous snapshot
+     */
+    private Frame changesFrame(BitcoinPriceSnapshot previous, BitcoinPriceSnapshot current) {
+        Map<String, CurrencyQuote> previousCurrencies = previous.getTransformedData().currencies();
+        Map<String, CurrencyQuote> currentCurrencies = current.getTransformedData().currencies();
+
+        Map<String, CurrencyQuote> changed = new LinkedHashMap<>();
+        currentCurrencies.forEach((code, currency) -> {
+            if (!currency.equals(previousCurrencies.get(code))) {
+                changed.put(code, currency);
+            }
+        });
+        List<String> removed = new ArrayList<>();
+        previousCurrencies.keySet().forEach(code -> {
+            if (!currentCurrencies.containsKey(code)) {
+                removed.add(code);
+            }
+        });
+
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("updateTime", current.getTransformedData().updateTime());
+        changes.put("currencies", changed);
+        if (!removed.isEmpty()) {
+            changes.put("removed", removed);
+        }
+        try {
+            return frame("changes", current, objectMapper.writeValueAsString(changes));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize price changes", e);
+        }
+    }
+
+    private static Frame frame(String name, BitcoinPriceSnapshot snapshot, String json) {
+        return new Frame(snapshot.getVersion(), SseEmitter.event()
+                .id(Long.toString(snapshot.getVersion()))
+                .name(name)
+                .data(json, MediaType.APPLICATION_JSON)
+                .build());
+    }
+
+    /**
+     * Serialized event for one snapshot version
+     */
+    private record Frame(long version, Set<DataWithMediaType> data) {
+    }
+
+    /**
+     * One client connection with its bounded frame buffer.
+     * Frames are only sent once the initial snapshot is queued, and never for a version already queued.
+     */
+    private final class Subscriber {
+        private static final long NOT_SENDING = Long.MIN_VALUE;
+
+        private final SseEmitter emitter;
+        private final boolean changesOnly;
+        private final Deque<Frame> buffer = new ArrayDeque<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private long lastQueuedVersion = -1;
+        private volatile boolean started;
+        private volatile boolean evicted;
+        // System.nanoTime() when the current emitter write began
+        private volatile long sendStartedAt = NOT_SENDING;
+
+        private Subscriber(SseEmitter emitter, boolean changesOnly) {
+            this.emitter = emitter;
+            this.changesOnly = changesOnly;
+        }
+
+        /**
+         * Queue the initial snapshot ahead of any update that arrived during registration and start sending
+         */
+        void start(Frame snapshot) {
+            lock.lock();
+            try {
+                buffer.removeIf(frame -> frame.version() <= snapshot.version());
+                buffer.addFirst(snapshot);
+                lastQueuedVersion = Math.max(lastQueuedVersion, snapshot.version());
+            } finally {
+                lock.unlock();
+            }
+            started = true;
+            scheduleDrain();
+        }
+
+        /**
+         * Queue a frame; when the buffer is full, the oldest frame is dropped, or with a resync frame the
+         * whole backlog is replaced by it
+         */
+        void offer(Frame frame, Supplier<Frame> resync) {
+            lock.lock();
+            try {
+                if (evicted || frame.version() <= lastQueuedVersion) {
+                    return;
+                }
+                if (buffer.size() >= bufferSize) {
+                    if (resync != null) {
+                        droppedFrames.addAndGet(buffer.size());
+                        buffer.clear();
+                        frame = resync.get();
+                    } else {
+                        buffer.pollFirst();
+                        droppedFrames.incrementAndGet();
+                    }
+                }
+                buffer.addLast(frame);
+                lastQueuedVersion = frame.version();
+            } finally {
+                lock.unlock();
+            }
+            if (started) {
+                scheduleDrain();
+            }
+        }
+
+        boolean isStalled(long now) {
+            long startedAt = sendStartedAt;
+            return startedAt != NOT_SENDING && now - startedAt > sendTimeoutNanos;
+        }
+
+        /**
+         * Stop queuing frames for a stalled client; its connection is completed once the blocked write returns
+         */
+        void evict() {
+            if (!stop()) {
+                return;
+            }
+            evictedSubscribers.incrementAndGet();
+            log.debug("Evicting price stream subscriber blocked for more than {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+        }
+
+        /**
+         * Remove the subscriber and discard its frames; false if it was already removed
+         */
+        private boolean stop() {
+            if (!subscribers.remove(this)) {
+                return false;
+            }
+            evicted = true;
+            lock.lock();
+            try {
+                buffer.clear();
+            } finally {
+                lock.unlock();
+            }
+            return true;
+        }
+
+        private void scheduleDrain() {
+            // At most one drain task per subscriber keeps frames in order
+            if (draining.compareAndSet(false, true)) {
+                submitDrain();
+            }
+        }
+
+        private void submitDrain() {
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Every sender thread is busy and the queue is full; nothing is being sent to this client
+                draining.set(false);
+                if (stop()) {
+                    rejectedSubscribers.incrementAndGet();
+                    log.debug("Dropping price stream subscriber, no sender thread free");
+                    emitter.completeWithError(e);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Frame frame;
+                while ((frame = poll()) != null) {
+                    sendStartedAt = System.nanoTime();
+                    emitter.send(frame.data());
+                    sendStartedAt = NOT_SENDING;
+                }
+                if (evicted) {
+                    emitter.completeWithError(new TimeoutException("Price stream client stopped reading"));
+                    return;
+                }
+            } catch (Exception e) {
+                log.debug("Dropping price stream subscriber: {}", e.getMessage());
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                sendStartedAt = NOT_SENDING;
+                draining.set(false);
+            }
+            // A frame may have arrived after the last poll but before draining was cleared
+            if (hasBufferedFrames() && draining.compareAndSet(false, true)) {
+                submitDrain();
+            }
+        }
+
+        private Frame poll() {
+            lock.lock();
+            try {
+                return buffer.pollFirst();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean hasBufferedFrames() {
+            lock.lock();
+            try {
+                return !buffer.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
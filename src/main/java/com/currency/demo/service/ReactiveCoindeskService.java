@@ -0,0 +1,136 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.CoindeskResponse;
+import com.currency.demo.model.PriceSnapshot;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking counterpart of CoindeskService.
+ * Fetches every configured provider with WebClient through PriceAggregator's quorum and median, and reuses
+ * CoindeskService's circuit breaker, validation, fallback data and transform, so both stacks return identical
+ * payloads and share one view of upstream health.
+ */
+@Service
+public class ReactiveCoindeskService {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCoindeskService.class);
+
+    private final WebClient upstreamWebClient;
+    private final CoindeskService coindeskService;
+    private final PriceAggregator priceAggregator;
+    private final CoindeskResponseParser responseParser;
+    private final CurrencyCatalog currencyCatalog;
+    private final CircuitBreaker upstreamCircuitBreaker;
+    private final CoindeskMetrics metrics;
+
+    // Concurrent subscribers share one upstream exchange
+    private final SingleFlight<URI, CoindeskResponse> upstreamFlights = new SingleFlight<>();
+
+    @Autowired
+    public ReactiveCoindeskService(WebClient upstreamWebClient, CoindeskService coindeskService,
+                                   PriceAggregator priceAggregator, CoindeskResponseParser responseParser,
+                                   CurrencyCatalog currencyCatalog, CircuitBreaker upstreamCircuitBreaker,
+                                   CoindeskMetrics metrics) {
+        this.upstreamWebClient = upstreamWebClient;
+        this.coindeskService = coindeskService;
+        this.priceAggregator = priceAggregator;
+        this.responseParser = responseParser;
+        this.currencyCatalog = currencyCatalog;
+        this.upstreamCircuitBreaker = upstreamCircuitBreaker;
+        this.metrics = metrics;
+        metrics.registerFlight("reactive-upstream", upstreamFlights);
+    }
+
+    /**
+     * Get original Bitcoin price data without blocking the calling thread
+     */
+    public Mono<CoindeskResponse> getOriginalData() {
+        URI url = coindeskService.getApiUrl();
+        // suppressCancel: one subscriber cancelling must not cancel the fetch shared with the others
+        return Mono.fromFuture(() -> upstreamFlights.executeAsync(url, () -> fetchOriginalData().toFuture()), true);
+    }
+
+    /**
+     * Get transformed Bitcoin price data without blocking the calling thread
+     */
+    public Mono<PriceSnapshot> getTransformedData() {
+        return Mono.zip(getOriginalData(), catalogEntries())
+                .map(tuple -> coindeskService.transform(tuple.getT1(), tuple.getT2()));
+    }
+
+    private Mono<CoindeskResponse> fetchOriginalData() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Mono.fromCompletionStage(() -> upstreamCircuitBreaker.executeCompletionStage(
+                            () -> priceAggregator.fetchAsync(this::fetchFrom).toFuture()))
+                    .map(response -> {
+                        record(CoindeskMetrics.UpstreamOutcome.SUCCESS, start);
+                        return coindeskService.recordSuccess(response).data();
+                    })
+                    .onErrorResume(e -> {
+                        if (e instanceof CallNotPermittedException) {
+                            record(CoindeskMetrics.UpstreamOutcome.CIRCUIT_OPEN, start);
+                            log.debug("Coindesk circuit breaker is open, serving fallback data");
+                        } else {
+                            record(CoindeskMetrics.outcomeOf(e), start);
+                            coindeskService.logUpstreamFailure(e);
+                        }
+                        return Mono.fromSupplier(() -> coindeskService.fallback().data());
+                    });
+        });
+    }
+
+    private void record(CoindeskMetrics.UpstreamOutcome outcome, long startNanos) {
+        metrics.upstreamTimer(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Mono<CoindeskResponse> fetchFrom(PriceProvider provider) {
+        if (!(provider instanceof HttpPriceProvider httpProvider)) {
+            // Only HTTP providers have a non-blocking client; others block on boundedElastic
+            return Mono.fromCallable(provider::fetch).subscribeOn(Schedulers.boundedElastic());
+        }
+        return upstreamWebClient.get()
+                .uri(httpProvider.getUrl())
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .map(this::parse)
+                .filter(CoindeskService::isValidResponse)
+                // Incomplete data counts as a failure for the circuit breaker
+                .switchIfEmpty(Mono.error(() -> new InvalidUpstreamResponseException(
+                        provider.getName() + " returned incomplete data")));
+    }
+
+    private CoindeskResponse parse(byte[] body) {
+        try {
+            return responseParser.parse(new ByteArrayInputStream(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Catalog view that never blocks an event-loop thread; the one-time database load runs on boundedElastic
+     */
+    private Mono<CurrencyCatalog.Entries> catalogEntries() {
+        CurrencyCatalog.Entries entries = currencyCatalog.getLoadedEntries();
+        if (entries != null) {
+            return Mono.just(entries);
+        }
+        return Mono.fromCallable(currencyCatalog::getEntries).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,386 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.CoindeskResponse;
+import com.currency.demo.model.PriceSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Memory-mapped file that lets instances on one host share a single Coindesk poller.
+ * The leader writes every upstream fetch into the file; followers read it from the mapped pages instead of
+ * calling Coindesk, and transform it with their own catalog.
+ * <p>
+ * Layout: a 64-byte header (magic, layout version, sequence, payload length) followed by the payload in a
+ * fixed binary form (length-prefixed UTF-8 strings, raw doubles), so reading needs no JSON parsing.
+ * The sequence is a seqlock: odd while the leader is writing, and a reader only accepts a payload if the
+ * sequence was the same even value before and after decoding it.
+ */
+@Component
+public class SharedPriceFile {
+    private static final Logger log = LoggerFactory.getLogger(SharedPriceFile.class);
+
+    public enum Role { OFF, LEADER, FOLLOWER }
+
+    static final int MAGIC = 0x42544350; // "BTCP"
+    static final int LAYOUT_VERSION = 1;
+    static final int MAGIC_OFFSET = 0;
+    static final int LAYOUT_VERSION_OFFSET = 4;
+    static final int SEQUENCE_OFFSET = 8;
+    static final int LENGTH_OFFSET = 16;
+    static final int HEADER_SIZE = 64;
+
+    private static final VarHandle SEQUENCE =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    // A reader that keeps seeing a write in progress gives up, so the caller fetches from Coindesk itself;
+    // a leader that died mid-write leaves the sequence odd until the next leader writes
+    private static final int MAX_READ_ATTEMPTS = 1000;
+    // After this many busy spins the reader yields, in case the writer was descheduled mid-write
+    private static final int SPINS_BEFORE_YIELD = 100;
+
+    private final Role role;
+    private final Path path;
+    private final int capacity;
+    private FileChannel channel;
+    private volatile MappedByteBuffer buffer;
+    private long sequence;
+    // Last payload a follower decoded, reused while the sequence has not moved
+    private final AtomicReference<Read> lastRead = new AtomicReference<>();
+    // Every read gives up while the sequence stays odd, so the warning is logged once per interval
+    private final LogSampler writeInProgressLog = new LogSampler(Duration.ofMinutes(1));
+
+    private record Read(long sequence, CoindeskFetch fetch) {
+    }
+
+    @Autowired
+    public SharedPriceFile(@Value("${coindesk.shared-snapshot.role:off}") Role role,
+                           @Value("${coindesk.shared-snapshot.path:${java.io.tmpdir}/currency-demo-prices.bin}") Path path,
+                           @Value("${coindesk.shared-snapshot.capacity-bytes:65536}") int capacity) {
+        if (capacity <= HEADER_SIZE) {
+            throw new IllegalArgumentException("coindesk.shared-snapshot.capacity-bytes must be greater than " + HEADER_SIZE);
+        }
+        this.role = role;
+        this.path = path;
+        this.capacity = capacity;
+        if (role == Role.LEADER) {
+            openForWriting();
+        }
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public boolean isFollower() {
+        return role == Role.FOLLOWER;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Publish an upstream fetch to the followers (leader only; fallback data is never shared)
+     */
+    public synchronized void write(CoindeskFetch fetch) {
+        if (role != Role.LEADER || fetch.source() != PriceSource.UPSTREAM) {
+            return;
+        }
+        byte[] payload;
+        try {
+            payload = encode(fetch);
+        } catch (BufferOverflowException e) {
+            log.warn("Price data does not fit in {} bytes; raise coindesk.shared-snapshot.capacity-bytes", capacity);
+            return;
+        }
+        // Odd sequence: readers that overlap this write discard what they decoded
+        SEQUENCE.setOpaque(buffer, SEQUENCE_OFFSET, sequence + 1);
+        VarHandle.storeStoreFence();
+        buffer.putInt(LENGTH_OFFSET, payload.length);
+        buffer.put(HEADER_SIZE, payload);
+        sequence += 2;
+        SEQUENCE.setRelease(buffer, SEQUENCE_OFFSET, sequence);
+        log.debug("Shared price data sequence {} ({} bytes)", sequence, payload.length);
+    }
+
+    /**
+     * Latest fetch the leader has shared, or null if this instance is not a follower, nothing has been written
+     * or a write stayed in progress for the whole retry budget.
+     * Returns the previously decoded instance while the sequence is unchanged.
+     */
+    public CoindeskFetch read() {
+        if (role != Role.FOLLOWER) {
+            return null;
+        }
+        MappedByteBuffer mapped = buffer != null ? buffer : openForReading();
+        if (mapped == null) {
+            return null;
+        }
+        Read previous = lastRead.get();
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long before = (long) SEQUENCE.getAcquire(mapped, SEQUENCE_OFFSET);
+            if (before == 0) {
+                return null;
+            }
+            if ((before & 1) == 0) {
+                if (previous != null && previous.sequence() == before) {
+                    return previous.fetch();
+                }
+                CoindeskFetch decoded = tryDecode(mapped);
+                VarHandle.loadLoadFence();
+                if ((long) SEQUENCE.getOpaque(mapped, SEQUENCE_OFFSET) == before && decoded != null) {
+                    Read read = new Read(before, decoded);
+                    lastRead.updateAndGet(last -> last == null || last.sequence() < before ? read : last);
+                    return decoded;
+                }
+            }
+            if (attempt < SPINS_BEFORE_YIELD) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        long suppressed = writeInProgressLog.sample();
+        if (suppressed > 0) {
+            log.warn("Shared price data in {} is still being written after {} attempts; fetching directly "
+                    + "({} similar reads not logged)", path, MAX_READ_ATTEMPTS, suppressed);
+        } else if (suppressed == 0) {
+            log.warn("Shared price data in {} is still being written after {} attempts; fetching directly",
+                    path, MAX_READ_ATTEMPTS);
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        try {
+            // Closing the channel also releases the leader lock
+            if (channel != null && channel.isOpen()) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close {}", path, e);
+        }
+    }
+
+    private void openForWriting() {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            FileLock leaderLock;
+            try {
+                leaderLock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                leaderLock = null;
+            }
+            if (leaderLock == null) {
+                channel.close();
+                throw new IllegalStateException("Another leader is already writing " + path);
+            }
+            // Mapping grows the file to the capacity; it is never shrunk under followers' mappings
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            mapped.order(ByteOrder.nativeOrder());
+            if (mapped.getInt(MAGIC_OFFSET) == MAGIC && mapped.getInt(LAYOUT_VERSION_OFFSET) == LAYOUT_VERSION) {
+                // Continue the previous leader's sequence so followers never see it go backwards;
+                // an odd value means it stopped mid-write, and the next write supersedes it
+                sequence = ((long) SEQUENCE.getVolatile(mapped, SEQUENCE_OFFSET) + 1) & ~1L;
+            } else {
+                sequence = 0;
+                SEQUENCE.setVolatile(mapped, SEQUENCE_OFFSET, 0L);
+                mapped.putInt(LAYOUT_VERSION_OFFSET, LAYOUT_VERSION);
+                mapped.putInt(MAGIC_OFFSET, MAGIC);
+            }
+            buffer = mapped;
+            log.info("Sharing Coindesk data with followers through {}", path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open shared price file " + path, e);
+        }
+    }
+
+    /**
+     * Map the file once the leader has created it; until then followers fetch from Coindesk themselves
+     */
+    private synchronized MappedByteBuffer openForReading() {
+        if (buffer != null) {
+            return buffer;
+        }
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = readChannel.size();
+            if (size <= HEADER_SIZE) {
+                return null;
+            }
+            MappedByteBuffer mapped = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.order(ByteOrder.nativeOrder());
+            if (mapped.getInt(MAGIC_OFFSET) != MAGIC || mapped.getInt(LAYOUT_VERSION_OFFSET) != LAYOUT_VERSION) {
+                log.warn("{} is not a shared price file of layout version {}", path, LAYOUT_VERSION);
+                return null;
+            }
+            // The mapping stays valid after the channel is closed
+            buffer = mapped;
+            log.info("Reading Coindesk data shared through {}", path);
+            return mapped;
+        } catch (IOException e) {
+            log.warn("Failed to map shared price file {}", path, e);
+            return null;
+        }
+    }
+
+    private byte[] encode(CoindeskFetch fetch) {
+        ByteBuffer out = ByteBuffer.allocate(capacity - HEADER_SIZE).order(ByteOrder.nativeOrder());
+        CoindeskResponse data = fetch.data();
+        out.putLong(fetch.fetchedAt().getEpochSecond());
+        out.putInt(fetch.fetchedAt().getNano());
+        CoindeskResponse.Time time = data.getTime();
+        out.put((byte) (time != null ? 1 : 0));
+        if (time != null) {
+            putString(out, time.getUpdated());
+            putString(out, time.getUpdatedISO());
+            putString(out, time.getUpdateduk());
+        }
+        putString(out, data.getDisclaimer());
+        putString(out, data.getChartName());
+        Map<String, CoindeskResponse.BPI> bpi = data.getBpi();
+        out.putInt(bpi != null ? bpi.size() : -1);
+        if (bpi != null) {
+            for (Map.Entry<String, CoindeskResponse.BPI> entry : bpi.entrySet()) {
+                CoindeskResponse.BPI quote = entry.getValue();
+                putString(out, entry.getKey());
+                putString(out, quote.getCode());
+                putString(out, quote.getSymbol());
+                putString(out, quote.getRate());
+                putString(out, quote.getDescription());
+                out.putDouble(quote.getRateFloat());
+            }
+        }
+        byte[] payload = new byte[out.position()];
+        out.get(0, payload);
+        return payload;
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putInt(bytes.length);
+        out.put(bytes);
+    }
+
+    /**
+     * Decode the payload in place; a write overlapping the read can leave any length or count corrupt,
+     * so a payload that does not parse is reported as null and the read is retried
+     */
+    private CoindeskFetch tryDecode(ByteBuffer in) {
+        try {
+            int length = in.getInt(LENGTH_OFFSET);
+            if (length < 0 || length > in.capacity() - HEADER_SIZE) {
+                return null;
+            }
+            Cursor cursor = new Cursor(in, HEADER_SIZE, HEADER_SIZE + length);
+            Instant fetchedAt = Instant.ofEpochSecond(cursor.getLong(), cursor.getInt());
+            CoindeskResponse data = new CoindeskResponse();
+            if (cursor.getByte() == 1) {
+                data.setTime(new CoindeskResponse.Time(cursor.getString(), cursor.getString(), cursor.getString()));
+            }
+            data.setDisclaimer(cursor.getString());
+            data.setChartName(cursor.getString());
+            int count = cursor.getInt();
+            if (count >= 0) {
+                Map<String, CoindeskResponse.BPI> bpi = new LinkedHashMap<>();
+                for (int i = 0; i < count; i++) {
+                    String key = cursor.getString();
+                    bpi.put(key, new CoindeskResponse.BPI(cursor.getString(), cursor.getString(), cursor.getString(),
+                            cursor.getString(), cursor.getDouble()));
+                }
+                data.setBpi(bpi);
+            }
+            return new CoindeskFetch(data, PriceSource.UPSTREAM, fetchedAt);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Absolute reads from the shared mapping; the buffer's own position is never touched,
+     * so concurrent readers do not interfere
+     */
+    private static final class Cursor {
+        private final ByteBuffer in;
+        private final int limit;
+        private int position;
+
+        Cursor(ByteBuffer in, int position, int limit) {
+            this.in = in;
+            this.position = position;
+            this.limit = limit;
+        }
+
+        byte getByte() {
+            return in.get(advance(1));
+        }
+
+        int getInt() {
+            return in.getInt(advance(4));
+        }
+
+        long getLong() {
+            return in.getLong(advance(8));
+        }
+
+        double getDouble() {
+            return in.getDouble(advance(8));
+        }
+
+        String getString() {
+            int length = getInt();
+            if (length == -1) {
+                return null;
+            }
+            int start = advance(length);
+            byte[] bytes = new byte[length];
+            in.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int advance(int size) {
+            if (size < 0 || size > limit - position) {
+                throw new IndexOutOfBoundsException("Read past the shared payload");
+            }
+            int start = position;
+            position += size;
+            return start;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+-- Seed currencies for the fast profile in one statement, only into an empty table.
+-- Each row takes a whole block from the pooled sequence, so ids never collide with Hibernate's.
+insert into currency (id, code, name, created_at, updated_at)
+select next value for currency_seq, seed.code, seed.name, localtimestamp, localtimestamp
+from (values ('USD', '美金'),
+             ('EUR', '歐元'),
+             ('JPY', '日圓'),
+             ('GBP', '英鎊'),
+             ('CNY', '人民幣'),
+             ('HKD', '港幣'),
+             ('AUD', '澳幣'),
+             ('CAD', '加幣'),
+             ('SGD', '新加坡幣'),
+             ('CHF', '瑞士法郎')) as seed(code, name)
+where not exists (select 1 from currency);
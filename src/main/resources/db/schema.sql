@@ -0,0 +1,20 @@
+-- Schema for the fast profile, which replaces Hibernate's ddl-auto; must match the JPA entities
+-- (FastStartProfileTest starts the application with ddl-auto=validate against it)
+create sequence if not exists currency_seq start with 1 increment by 50;
+
+create table if not exists currency (
+    id         bigint       not null primary key,
+    code       varchar(3)   not null unique,
+    name       varchar(50)  not null,
+    created_at timestamp(6),
+    updated_at timestamp(6)
+);
+
+create sequence if not exists fx_rate_seq start with 1 increment by 50;
+
+create table if not exists fx_rate (
+    id    bigint                   not null primary key,
+    code  varchar(3)               not null unique,
+    ratio float(53)                not null,
+    as_of timestamp(6) with time zone not null
+);
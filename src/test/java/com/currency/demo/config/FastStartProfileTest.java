@@ -0,0 +1,81 @@
+package com.currency.demo.config;
+
+import com.currency.demo.model.Currency;
+import com.currency.demo.repository.CurrencyRepository;
+import com.currency.demo.service.CurrencyCatalog;
+import com.currency.demo.service.CurrencyService;
+import com.currency.demo.service.FxRateService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against its own database so the schema comes from db/schema.sql alone; ddl-auto=validate fails
+ * the context if the script and the entities disagree.
+ * The context is closed afterwards so it releases logging to the next context (see ProdProfileTest).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:faststart;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles({"test", "fast"})
+@DirtiesContext
+public class FastStartProfileTest {
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private CurrencyCatalog currencyCatalog;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private FxRateService fxRateService;
+
+    /**
+     * Test the seed script loads every currency in order
+     */
+    @Test
+    public void testCurrenciesAreSeededFromScript() {
+        List<String> codes = List.copyOf(currencyCatalog.getEntries().namesByCode().keySet());
+        System.out.println("Seeded currencies: " + codes);
+
+        assertEquals(List.of("USD", "EUR", "JPY", "GBP", "CNY", "HKD", "AUD", "CAD", "SGD", "CHF"), codes);
+        assertEquals("美金", currencyCatalog.getEntries().getName("USD"));
+        assertNotNull(currencyRepository.findByCode("CHF").getCreatedAt());
+    }
+
+    /**
+     * Test ids Hibernate allocates after seeding do not collide with the seeded rows
+     */
+    @Test
+    public void testNewCurrenciesGetFreshIds() {
+        Currency existing = currencyService.getCurrencyByCode("THB");
+        if (existing != null) {
+            currencyService.deleteCurrency(existing.getId());
+        }
+        Currency created = currencyService.createCurrency(new Currency("THB", "泰銖"));
+        try {
+            assertEquals("泰銖", currencyRepository.findById(created.getId()).orElseThrow().getName());
+            assertEquals(11, currencyRepository.count());
+        } finally {
+            currencyService.deleteCurrency(created.getId());
+        }
+    }
+
+    /**
+     * Test FX ratios are stored in the scripted fx_rate table
+     */
+    @Test
+    public void testFxRatesUseScriptedTable() {
+        assertTrue(fxRateService.refresh().ordinalOf("JPY") >= 0);
+    }
+}
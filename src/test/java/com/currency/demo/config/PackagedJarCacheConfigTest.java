@@ -0,0 +1,142 @@
+package com.currency.demo.config;
+
+import com.currency.demo.model.Currency;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots JPA with hibernate-cache.conf served from inside a jar, as it is when the application runs from the
+ * packaged jar: the resource has a jar: URL, and the launcher's class loader is the thread context class loader.
+ * Each context gets its own class loader, so its JCache manager is not the one shared by the other test contexts.
+ */
+public class PackagedJarCacheConfigTest {
+
+    private static final String CACHE_CONFIG = "hibernate-cache.conf";
+    private static final String PROVIDER = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+
+    @TempDir
+    Path tempDir;
+
+    private final ClassLoader originalContextClassLoader = Thread.currentThread().getContextClassLoader();
+    private JarResourceClassLoader jarClassLoader;
+
+    @BeforeEach
+    public void packageCacheConfig() throws IOException {
+        Path jar = tempDir.resolve("app.jar");
+        try (InputStream config = getClass().getClassLoader().getResourceAsStream(CACHE_CONFIG);
+             JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            assertNotNull(config, CACHE_CONFIG + " should be on the test classpath");
+            out.putNextEntry(new JarEntry(CACHE_CONFIG));
+            config.transferTo(out);
+            out.closeEntry();
+        }
+        jarClassLoader = new JarResourceClassLoader(jar.toUri().toURL(), originalContextClassLoader);
+        Thread.currentThread().setContextClassLoader(jarClassLoader);
+    }
+
+    @AfterEach
+    public void restoreClassLoader() throws IOException {
+        Thread.currentThread().setContextClassLoader(originalContextClassLoader);
+        Caching.getCachingProvider(PROVIDER).close(jarClassLoader);
+        jarClassLoader.close();
+    }
+
+    /**
+     * Test the cache regions are configured from the packaged hibernate-cache.conf, so the context starts
+     */
+    @Test
+    public void testStartsWithCacheConfigInsideJar() {
+        assertEquals("jar", jarClassLoader.getResource(CACHE_CONFIG).getProtocol());
+
+        runner().withUserConfiguration(HibernateCacheConfig.class).run(context -> {
+            assertNull(context.getStartupFailure());
+            assertNotNull(context.getBean(EntityManagerFactory.class));
+
+            CacheManager cacheManager = Caching.getCachingProvider(PROVIDER)
+                    .getCacheManager(URI.create(CACHE_CONFIG), jarClassLoader);
+            for (String region : new String[] {"currency", "currency-by-code", "default-update-timestamps-region",
+                    "default-query-results-region"}) {
+                assertNotNull(cacheManager.getCache(region), "Region " + region + " should be configured");
+            }
+        });
+    }
+
+    /**
+     * Test Hibernate's own resolution of the URI fails from a jar, which is why HibernateCacheConfig exists
+     */
+    @Test
+    public void testHibernateAloneCannotReadCacheConfigInsideJar() {
+        runner().run(context -> {
+            assertNotNull(context.getStartupFailure(), "Context should not start without HibernateCacheConfig");
+            Throwable cause = context.getStartupFailure();
+            while (cause.getCause() != null && !(cause instanceof org.hibernate.cache.CacheException)) {
+                cause = cause.getCause();
+            }
+            assertInstanceOf(org.hibernate.cache.CacheException.class, cause);
+            assertTrue(cause.getMessage().contains("default-update-timestamps-region"), cause.getMessage());
+        });
+    }
+
+    private ApplicationContextRunner runner() {
+        return new ApplicationContextRunner()
+                .withClassLoader(jarClassLoader)
+                .withInitializer(new ConfigDataApplicationContextInitializer())
+                .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class,
+                        HibernateJpaAutoConfiguration.class))
+                .withUserConfiguration(EntityConfig.class)
+                .withPropertyValues("spring.datasource.url=jdbc:h2:mem:packaged-jar;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop");
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EntityScan(basePackageClasses = Currency.class)
+    static class EntityConfig {
+    }
+
+    /**
+     * Serves the cache configuration from the jar only, like the packaged application's class loader
+     */
+    private static final class JarResourceClassLoader extends URLClassLoader {
+
+        JarResourceClassLoader(URL jar, ClassLoader parent) {
+            super(new URL[] {jar}, parent);
+        }
+
+        @Override
+        public URL getResource(String name) {
+            return CACHE_CONFIG.equals(name) ? findResource(name) : super.getResource(name);
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String name) throws IOException {
+            return CACHE_CONFIG.equals(name) ? Collections.enumeration(Collections.list(findResources(name)))
+                    : super.getResources(name);
+        }
+    }
+}
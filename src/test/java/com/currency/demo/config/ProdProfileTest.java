@@ -0,0 +1,46 @@
+package com.currency.demo.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles({"test", "prod"})
+public class ProdProfileTest {
+
+    @Value("${spring.jpa.show-sql}")
+    private boolean showSql;
+
+    /**
+     * Test the prod profile logs through the bounded, non-blocking async appender
+     */
+    @Test
+    public void testConsoleLoggingIsAsync() {
+        Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        AsyncAppender async = (AsyncAppender) root.getAppender("ASYNC_CONSOLE");
+
+        assertNotNull(async, "Root logger should write through the async appender");
+        assertTrue(async.isNeverBlock(), "Logging must not block request threads when the queue is full");
+        assertNotNull(async.getAppender("CONSOLE"));
+        assertNull(root.getAppender("CONSOLE"), "Console should not also be written synchronously");
+    }
+
+    /**
+     * Test per-request debug and SQL logging is switched off
+     */
+    @Test
+    public void testRequestPathDebugLoggingIsOff() {
+        assertFalse(showSql);
+        assertFalse(LoggerFactory.getLogger("com.currency.demo.service.CoindeskService").isDebugEnabled());
+        assertFalse(LoggerFactory.getLogger("org.hibernate.SQL").isDebugEnabled());
+        assertEquals(Level.WARN, ((Logger) LoggerFactory.getLogger(
+                "org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping")).getLevel());
+    }
+}
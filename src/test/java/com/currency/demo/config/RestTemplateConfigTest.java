@@ -0,0 +1,99 @@
+package com.currency.demo.config;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RestTemplateConfigTest {
+
+    private static final int REQUESTS = 200;
+
+    static {
+        // Avoid Nagle/delayed-ACK stalls in the JDK stub server skewing the timings
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final RestTemplateConfig config = new RestTemplateConfig();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private HttpServer stubServer;
+    private String stubUrl;
+
+    @BeforeEach
+    public void startStubServer() throws Exception {
+        // Local Coindesk stand-in that records which client connection served each request
+        byte[] body = "{\"bpi\":{}}".getBytes(StandardCharsets.UTF_8);
+        stubServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        stubServer.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stubServer.start();
+        stubUrl = "http://127.0.0.1:" + stubServer.getAddress().getPort() + "/currentprice.json";
+    }
+
+    @AfterEach
+    public void stopStubServer() {
+        stubServer.stop(0);
+    }
+
+    /**
+     * The pooled client reuses one keep-alive connection for sequential requests
+     */
+    @Test
+    public void testPooledClientReusesConnections() throws Exception {
+        PoolingHttpClientConnectionManager connectionManager =
+                config.upstreamConnectionManager(10, 5, 5000, 5000, 2000);
+        try (CloseableHttpClient httpClient = config.upstreamHttpClient(connectionManager, 5000, 1000, 30000)) {
+            RestTemplate restTemplate = config.restTemplate(config.pooledRequestFactory(httpClient));
+
+            long elapsed = runRequests(restTemplate);
+            System.out.println("Pooled client: " + REQUESTS + " requests over " + clientPorts.size()
+                    + " connection(s) in " + elapsed / 1_000_000 + " ms");
+
+            assertEquals(1, clientPorts.size(), "All requests should share one pooled connection");
+            assertEquals(0, connectionManager.getTotalStats().getLeased(), "Connections should be returned to the pool");
+            assertEquals(1, connectionManager.getTotalStats().getAvailable());
+        } finally {
+            connectionManager.close();
+        }
+    }
+
+    /**
+     * Baseline: the unpooled factory still answers correctly (timing printed for comparison)
+     */
+    @Test
+    public void testSimpleFactoryBaseline() {
+        RestTemplate restTemplate = config.restTemplate(config.simpleRequestFactory(5000, 5000));
+
+        long elapsed = runRequests(restTemplate);
+        System.out.println("Simple factory: " + REQUESTS + " requests over " + clientPorts.size()
+                + " connection(s) in " + elapsed / 1_000_000 + " ms");
+
+        assertFalse(clientPorts.isEmpty());
+    }
+
+    private long runRequests(RestTemplate restTemplate) {
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            assertNotNull(restTemplate.getForObject(stubUrl, String.class));
+        }
+        return System.nanoTime() - start;
+    }
+}
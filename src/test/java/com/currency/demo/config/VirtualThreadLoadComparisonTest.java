@@ -0,0 +1,170 @@
+package com.currency.demo.config;
+
+import com.currency.demo.DemoApplication;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load comparison between the platform-thread and virtual-thread execution modes.
+ * A test endpoint blocks for a fixed time (standing in for a slow upstream/JDBC call)
+ * and records how many requests were in flight at once.
+ */
+public class VirtualThreadLoadComparisonTest {
+
+    private static final int REQUESTS = 100;
+    private static final int WARM_UP_REQUESTS = 20;
+    private static final int PLATFORM_MAX_THREADS = 10;
+    private static final long BLOCKING_MILLIS = 500;
+
+    @Test
+    public void testVirtualThreadsRaiseConcurrencyAndCutTailLatency() throws Exception {
+        LoadResult platform = runLoad(false);
+        LoadResult virtual = runLoad(true);
+
+        System.out.println("Platform threads (max " + PLATFORM_MAX_THREADS + "): " + platform);
+        System.out.println("Virtual threads: " + virtual);
+
+        assertFalse(platform.handledOnVirtualThread(), "Default mode should use platform threads");
+        assertTrue(virtual.handledOnVirtualThread(), "Virtual mode should handle requests on virtual threads");
+        assertTrue(platform.maxInFlight() <= PLATFORM_MAX_THREADS, "Platform mode is bounded by the Tomcat pool");
+        assertTrue(virtual.maxInFlight() > PLATFORM_MAX_THREADS, "Virtual mode should not be bounded by the pool size");
+        assertTrue(virtual.p99Millis() < platform.p99Millis(), "Virtual mode should have lower p99 latency");
+    }
+
+    /**
+     * The real endpoints (snapshot, JPA/H2, logging) must not pin carrier threads in virtual mode
+     */
+    @Test
+    public void testNoPinningOnApplicationEndpoints() throws Exception {
+        List<String> pinned = new ArrayList<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> {
+                synchronized (pinned) {
+                    pinned.add(String.valueOf(event.getStackTrace()));
+                }
+            });
+            recording.startAsync();
+
+            try (ConfigurableApplicationContext context = start(true)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                HttpClient client = HttpClient.newHttpClient();
+                List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    String path = i % 2 == 0 ? "/api/bitcoin/price" : "/api/currencies";
+                    responses.add(client.sendAsync(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).build(),
+                            HttpResponse.BodyHandlers.ofString()));
+                }
+                for (CompletableFuture<HttpResponse<String>> response : responses) {
+                    assertEquals(200, response.join().statusCode());
+                }
+            }
+        }
+
+        synchronized (pinned) {
+            assertTrue(pinned.isEmpty(), "Virtual threads were pinned:\n" + String.join("\n", pinned));
+        }
+    }
+
+    private LoadResult runLoad(boolean virtualThreads) throws Exception {
+        SlowEndpoint.reset();
+        try (ConfigurableApplicationContext context = start(virtualThreads)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newHttpClient();
+            URI uri = URI.create("http://127.0.0.1:" + port + "/test/blocking");
+
+            // Warm up connections and JIT before measuring
+            fire(client, uri, WARM_UP_REQUESTS);
+            SlowEndpoint.reset();
+            long[] sorted = fire(client, uri, REQUESTS);
+            long p99 = sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+            return new LoadResult(SlowEndpoint.maxInFlight.get(), p99, SlowEndpoint.sawVirtualThread);
+        }
+    }
+
+    /**
+     * Send all requests at once and return their latencies in milliseconds, sorted
+     */
+    private long[] fire(HttpClient client, URI uri, int requests) {
+        List<CompletableFuture<Long>> latencies = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            long start = System.nanoTime();
+            latencies.add(client.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> {
+                        assertEquals(200, response.statusCode());
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }));
+        }
+        return latencies.stream().mapToLong(CompletableFuture::join).sorted().toArray();
+    }
+
+    private ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(DemoApplication.class, SlowEndpoint.class)
+                .profiles("test")
+                // Command-line arguments take precedence over application.properties
+                .run("--server.port=0",
+                        "--server.address=127.0.0.1",
+                        "--server.tomcat.threads.max=" + PLATFORM_MAX_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.currency.demo=WARN");
+    }
+
+    private record LoadResult(int maxInFlight, long p99Millis, boolean handledOnVirtualThread) {
+        @Override
+        public String toString() {
+            return "max in-flight=" + maxInFlight + ", p99=" + p99Millis + " ms";
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class SlowEndpoint {
+        static final AtomicInteger inFlight = new AtomicInteger();
+        static final AtomicInteger maxInFlight = new AtomicInteger();
+        static volatile boolean sawVirtualThread;
+
+        static void reset() {
+            inFlight.set(0);
+            maxInFlight.set(0);
+            sawVirtualThread = false;
+        }
+
+        @Bean
+        RouterFunction<ServerResponse> blockingRoute() {
+            return RouterFunctions.route()
+                    .GET("/test/blocking", request -> {
+                        int current = inFlight.incrementAndGet();
+                        maxInFlight.accumulateAndGet(current, Math::max);
+                        sawVirtualThread |= Thread.currentThread().isVirtual();
+                        try {
+                            Thread.sleep(BLOCKING_MILLIS);
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                        return ServerResponse.ok().body("done");
+                    })
+                    .build();
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package com.currency.demo.controller;
 
+import com.currency.demo.model.BitcoinPriceSnapshot;
+import com.currency.demo.model.CoindeskResponse;
+import com.currency.demo.model.PriceSnapshot;
+import com.currency.demo.model.PriceSource;
+import com.currency.demo.service.PriceSnapshotPublishedEvent;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -12,6 +19,12 @@ import org.springframework.test.web.servlet.MvcResult;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -27,6 +40,9 @@ public class CoindeskControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Test 5: Call Coindesk API and display its content
      */
@@ -105,6 +121,158 @@ public class CoindeskControllerTest {
             // Verify exchange rate
             double rate = usd.get("rate").asDouble();
             assertTrue(rate > 0, "Exchange rate should be greater than 0");
+            
+            // Live quotes keep the original contract: no estimated or ratioAsOf fields
+            assertFalse(usd.has("estimated"), "Live quotes should not include estimated field");
+            assertFalse(usd.has("ratioAsOf"), "Live quotes should not include ratioAsOf field");
+        }
+    }
+
+    /**
+     * Conditional requests for an unchanged snapshot get 304 with no body
+     */
+    @Test
+    public void testGetTransformedPriceNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/bitcoin/price"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        MvcResult notModified = mockMvc.perform(get("/api/bitcoin/price")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+        assertEquals(0, notModified.getResponse().getContentAsByteArray().length, "304 should have no body");
+    }
+
+    /**
+     * Clients accepting gzip get the pre-compressed variant of the same payload
+     */
+    @Test
+    public void testGetTransformedPriceGzip() throws Exception {
+        byte[] plain = mockMvc.perform(get("/api/bitcoin/price"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        MvcResult gzipped = mockMvc.perform(get("/api/bitcoin/price")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            assertArrayEquals(plain, in.readAllBytes(), "Decompressed body should match the plain body");
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * The gzip and identity bodies have different ETags, and a validator only matches its own encoding
+     */
+    @Test
+    public void testGetTransformedPriceEtagPerEncoding() throws Exception {
+        String plainEtag = mockMvc.perform(get("/api/bitcoin/price"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String gzipEtag = mockMvc.perform(get("/api/bitcoin/price")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(plainEtag, gzipEtag);
+
+        // The identity ETag does not validate a cached gzip body, and vice versa
+        mockMvc.perform(get("/api/bitcoin/price")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, plainEtag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/bitcoin/price")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/bitcoin/price")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * Accept-Encoding is parsed with its quality values, so gzip;q=0 gets the identity body
+     */
+    @Test
+    public void testAcceptsGzip() throws Exception {
+        assertTrue(CoindeskController.acceptsGzip("gzip, deflate"));
+        assertTrue(CoindeskController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(CoindeskController.acceptsGzip("*"));
+        assertTrue(CoindeskController.acceptsGzip("x-gzip"));
+        assertFalse(CoindeskController.acceptsGzip(null));
+        assertFalse(CoindeskController.acceptsGzip("gzip;q=0"));
+        assertFalse(CoindeskController.acceptsGzip("gzip; q=0.0, *"));
+        assertFalse(CoindeskController.acceptsGzip("*;q=0"));
+        assertFalse(CoindeskController.acceptsGzip("deflate, br"));
+        assertFalse(CoindeskController.acceptsGzip("gzipped"));
+
+        mockMvc.perform(get("/api/bitcoin/price")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    /**
+     * Test the price history records fetched prices and downsamples them into buckets
+     */
+    @Test
+    public void testGetHistory() throws Exception {
+        // Only data fetched from Coindesk is recorded, so publish an upstream snapshot directly
+        CoindeskResponse upstream = new CoindeskResponse();
+        upstream.setBpi(Map.of("USD", new CoindeskResponse.BPI("USD", "&dollar;", "60,000.0000", "United States Dollar", 60000.0)));
+        BitcoinPriceSnapshot snapshot = new BitcoinPriceSnapshot(0, Instant.now(), PriceSource.UPSTREAM, 0,
+                upstream, new PriceSnapshot("", new TreeMap<>()), new byte[0], new byte[0], "\"history\"", Instant.now());
+        eventPublisher.publishEvent(new PriceSnapshotPublishedEvent(null, snapshot));
+
+        MvcResult result = mockMvc.perform(get("/api/bitcoin/history")
+                        .param("code", "USD")
+                        .param("bucket", "PT1M"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String responseContent = result.getResponse().getContentAsString();
+        System.out.println("Bitcoin price history:");
+        System.out.println(responseContent);
+
+        JsonNode candles = objectMapper.readTree(responseContent).get("candles");
+        assertTrue(candles.size() > 0, "History should contain the fetched price");
+        JsonNode latest = candles.get(candles.size() - 1);
+        assertTrue(latest.get("high").asDouble() >= latest.get("low").asDouble());
+        assertTrue(latest.get("count").asInt() > 0);
+
+        mockMvc.perform(get("/api/bitcoin/history").param("code", "XYZ"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/bitcoin/history").param("bucket", "PT0S"))
+                .andExpect(status().isBadRequest());
+        // Under 1 ms the bucket would be 0 ms wide
+        mockMvc.perform(get("/api/bitcoin/history").param("bucket", "PT0.0005S"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/bitcoin/history").param("bucket", "-PT1M"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/bitcoin/history").param("bucket", "PT0.001S"))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Test responses built from fallback data carry their age and a stale marker
+     */
+    @Test
+    public void testFallbackPriceIsMarkedStale() throws Exception {
+        // Coindesk is not reachable from the test environment, so the built-in default data is served
+        mockMvc.perform(get("/api/bitcoin/price"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.AGE))
+                .andExpect(header().string("X-Price-Stale", "true"));
+        mockMvc.perform(get("/api/bitcoin/price/original"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Price-Stale", "true"));
+    }
+}
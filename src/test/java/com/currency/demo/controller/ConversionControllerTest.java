@@ -0,0 +1,130 @@
+package com.currency.demo.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ConversionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Test conversion uses the ratio of the two currencies' Bitcoin prices
+     */
+    @Test
+    public void testConvert() throws Exception {
+        JsonNode currencies = objectMapper.readTree(mockMvc.perform(get("/api/bitcoin/price"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray()).get("currencies");
+        double usdPerBtc = currencies.get("USD").get("rate").asDouble();
+        double eurPerBtc = currencies.get("EUR").get("rate").asDouble();
+
+        String response = mockMvc.perform(get("/api/convert")
+                        .param("from", "EUR")
+                        .param("to", "usd")
+                        .param("amount", "250"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value("EUR"))
+                .andExpect(jsonPath("$.to").value("USD"))
+                .andExpect(jsonPath("$.amount").value(250.0))
+                .andExpect(jsonPath("$.asOf").exists())
+                .andReturn().getResponse().getContentAsString();
+        System.out.println("Conversion: " + response);
+
+        JsonNode conversion = objectMapper.readTree(response);
+        assertEquals(usdPerBtc / eurPerBtc, conversion.get("rate").asDouble(), 1e-9);
+        assertEquals(250 * usdPerBtc / eurPerBtc, conversion.get("result").asDouble(), 1e-6);
+    }
+
+    /**
+     * Test the amount defaults to one unit and converting a currency to itself is the identity
+     */
+    @Test
+    public void testConvertDefaults() throws Exception {
+        mockMvc.perform(get("/api/convert").param("from", "USD").param("to", "USD"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(1.0))
+                .andExpect(jsonPath("$.rate").value(1.0))
+                .andExpect(jsonPath("$.result").value(1.0));
+    }
+
+    /**
+     * Test unknown currencies and invalid amounts are rejected
+     */
+    @Test
+    public void testConvertErrors() throws Exception {
+        mockMvc.perform(get("/api/convert").param("from", "XXX").param("to", "USD"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/convert").param("from", "USD").param("to", "DOGE"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/convert").param("from", "USD").param("to", "EUR").param("amount", "abc"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/convert").param("from", "USD").param("to", "EUR").param("amount", "NaN"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/convert").param("to", "EUR"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test a batch posted as NDJSON is answered as NDJSON against one snapshot
+     */
+    @Test
+    public void testConvertBatchNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/convert/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("""
+                                {"from":"USD","to":"EUR","amount":10}
+                                {"from":"EUR","to":"USD","amount":10}
+                                {"from":"USD","to":"XXX","amount":10}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().exists(ConversionController.SNAPSHOT_VERSION_HEADER))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        System.out.println("Batch conversion: " + String.join(" | ", lines));
+        assertEquals(3, lines.length);
+        JsonNode usdToEur = objectMapper.readTree(lines[0]);
+        JsonNode eurToUsd = objectMapper.readTree(lines[1]);
+        assertEquals(1.0, usdToEur.get("rate").asDouble() * eurToUsd.get("rate").asDouble(), 1e-9);
+        assertEquals("unknown currency", objectMapper.readTree(lines[2]).get("error").asText());
+    }
+
+    /**
+     * Test a batch posted as a JSON array is answered as a JSON array, and malformed input is a 400
+     */
+    @Test
+    public void testConvertBatchJson() throws Exception {
+        mockMvc.perform(post("/api/convert/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"from\":\"USD\",\"to\":\"USD\",\"amount\":5}]"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].result").value(5.0));
+
+        mockMvc.perform(post("/api/convert/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"from\":\"USD\"}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -1,6 +1,7 @@
 package com.currency.demo.controller;
 
 import com.currency.demo.model.Currency;
+import com.currency.demo.repository.CurrencyRepository;
 import com.currency.demo.service.CurrencyService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,8 +12,13 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +38,9 @@ public class CurrencyControllerTest {
     @Autowired
     private CurrencyService currencyService;
 
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
     /**
      * Test 1: Query all currency mapping data API
      */
@@ -152,4 +161,124 @@ public class CurrencyControllerTest {
         
         System.out.println("Currency deletion successful, currency code: " + code + " has been deleted");
     }
-} 
\ No newline at end of file
+
+    /**
+     * Test bulk create, upsert by code, multi-get and bulk delete APIs
+     */
+    @Test
+    public void testBulkCurrencies() throws Exception {
+        List<Currency> currencies = List.of(new Currency("PHP", "菲律賓披索"), new Currency("VND", "越南盾"));
+        mockMvc.perform(post("/api/currencies/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(currencies)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        // Upsert updates PHP by code and inserts IDR
+        List<Currency> upserts = List.of(new Currency("PHP", "披索"), new Currency("IDR", "印尼盾"));
+        mockMvc.perform(put("/api/currencies/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(upserts)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("披索"))
+                .andExpect(jsonPath("$[1].code").value("IDR"));
+
+        MvcResult result = mockMvc.perform(get("/api/currencies").param("codes", "PHP,VND,IDR"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andReturn();
+        System.out.println("Response content for getting currencies by codes:");
+        System.out.println(result.getResponse().getContentAsString());
+
+        String ids = currencyService.getCurrenciesByCodes(List.of("PHP", "VND", "IDR")).stream()
+                .map(currency -> currency.getId().toString())
+                .reduce((left, right) -> left + "," + right)
+                .orElseThrow();
+        mockMvc.perform(delete("/api/currencies").param("ids", ids))
+                .andExpect(status().isOk());
+        assertTrue(currencyService.getCurrenciesByCodes(List.of("PHP", "VND", "IDR")).isEmpty());
+    }
+
+    /**
+     * Test the currency list is returned in capped pages, each naming the cursor of the next one
+     */
+    @Test
+    public void testGetAllCurrenciesIsPaged() throws Exception {
+        currencyService.upsertCurrencies(List.of(new Currency("ABA", "子"), new Currency("ABB", "丑"),
+                new Currency("ABC", "寅")));
+        long total = currencyRepository.count();
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/currencies").param("size", "2");
+            if (cursor != null) {
+                request.param("after", cursor);
+            }
+            MvcResult result = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode page = objectMapper.readTree(result.getResponse().getContentAsString());
+            assertTrue(page.get("items").size() <= 2, "Page should not exceed the requested size");
+            page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertEquals(total, ids.size(), "Every currency should be returned once");
+        assertEquals(ids.stream().sorted().toList(), ids, "Pages should be ordered by id");
+
+        int maxPageSize = currencyService.getMaxPageSize();
+        mockMvc.perform(get("/api/currencies").param("size", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value((int) Math.min(total, maxPageSize)))
+                .andExpect(total > maxPageSize ? jsonPath("$.nextCursor").isString() : jsonPath("$.nextCursor").isEmpty());
+        String tooManyCodes = String.join(",", Collections.nCopies(maxPageSize + 1, "USD"));
+        mockMvc.perform(get("/api/currencies").param("codes", tooManyCodes))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test keyset pagination walks every currency exactly once, in order, with summary fields only
+     */
+    @Test
+    public void testGetCurrencyPage() throws Exception {
+        currencyService.createCurrencies(List.of(new Currency("AAA", "甲"), new Currency("AAB", "乙"),
+                new Currency("AAC", "丙"), new Currency("AAD", "丁"), new Currency("AAE", "戊")));
+        long total = currencyRepository.count();
+
+        for (String sort : List.of("code", "id")) {
+            List<String> codes = new ArrayList<>();
+            List<Long> ids = new ArrayList<>();
+            String cursor = null;
+            do {
+                var request = get("/api/currencies/page").param("sort", sort).param("size", "2");
+                if (cursor != null) {
+                    request.param("after", cursor);
+                }
+                MvcResult result = mockMvc.perform(request)
+                        .andExpect(status().isOk())
+                        .andReturn();
+                JsonNode page = objectMapper.readTree(result.getResponse().getContentAsString());
+                assertTrue(page.get("items").size() <= 2, "Page should not exceed the requested size");
+                for (JsonNode item : page.get("items")) {
+                    assertFalse(item.has("createdAt"), "Page items should be summaries");
+                    codes.add(item.get("code").asText());
+                    ids.add(item.get("id").asLong());
+                }
+                cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            } while (cursor != null);
+
+            System.out.println("Currencies paged by " + sort + ": " + codes);
+            assertEquals(total, codes.size(), "Every currency should be returned once");
+            assertTrue(codes.containsAll(List.of("AAA", "AAB", "AAC", "AAD", "AAE")));
+            List<?> keys = "code".equals(sort) ? codes : ids;
+            List<?> sorted = "code".equals(sort) ? codes.stream().sorted().toList() : ids.stream().sorted().toList();
+            assertEquals(sorted, keys, "Pages should follow the sort key");
+        }
+
+        mockMvc.perform(get("/api/currencies/page").param("sort", "name"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/currencies/page").param("sort", "id").param("after", "abc"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,76 @@
+package com.currency.demo.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * Test the price pipeline meters are listed under /actuator/metrics
+     */
+    @Test
+    public void testMetricsEndpoint() throws Exception {
+        mockMvc.perform(get("/api/bitcoin/price")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/coindesk.upstream.requests"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableTags[?(@.tag == 'outcome')]").exists());
+        mockMvc.perform(get("/actuator/metrics/coindesk.transform")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/coindesk.snapshot.age")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/currency.catalog.size")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/spring.data.repository.invocations")).andExpect(status().isOk());
+    }
+
+    /**
+     * Test every single-flight group publishes its execution and coalesced counts, tagged by flight name
+     */
+    @Test
+    public void testSingleFlightMeters() throws Exception {
+        mockMvc.perform(get("/api/bitcoin/price")).andExpect(status().isOk());
+
+        for (String flight : new String[] {"upstream", "reactive-upstream", "snapshot-refresh"}) {
+            mockMvc.perform(get("/actuator/metrics/coindesk.singleflight.executions").param("tag", "flight:" + flight))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/actuator/metrics/coindesk.singleflight.coalesced").param("tag", "flight:" + flight))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/actuator/metrics/coindesk.singleflight.executions").param("tag", "flight:upstream"))
+                .andExpect(jsonPath("$.measurements[0].value").value(greaterThan(0.0)));
+    }
+
+    /**
+     * Test the Prometheus scrape endpoint exposes upstream latency histograms
+     */
+    @Test
+    public void testPrometheusEndpoint() throws Exception {
+        mockMvc.perform(get("/api/bitcoin/price")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        System.out.println("Prometheus scrape size: " + scrape.length() + " chars");
+        assertTrue(scrape.contains("coindesk_upstream_requests_seconds_bucket"), "Upstream timer should publish a histogram");
+        assertTrue(scrape.contains("coindesk_transform_seconds_count"));
+        assertTrue(scrape.contains("coindesk_transform_currencies_total{rate=\"live\""));
+        assertTrue(scrape.contains("coindesk_snapshot_age_seconds"));
+        assertTrue(scrape.contains("currency_catalog_size"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.currency.demo.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * With two price providers, the servlet and reactive endpoints both serve the quorum median
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class MultiProviderPriceTest {
+
+    private static final List<HttpServer> providers = List.of(provider(50000.0), provider(50100.0));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void providerProperties(DynamicPropertyRegistry registry) {
+        registry.add("coindesk.providers.urls", () -> String.join(",", providers.stream()
+                .map(server -> "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/bpi/currentprice.json")
+                .toList()));
+        registry.add("coindesk.providers.quorum", () -> "2");
+    }
+
+    @AfterAll
+    public static void stopProviders() {
+        providers.forEach(server -> server.stop(0));
+    }
+
+    /**
+     * Test both stacks return the median of the two providers for every currency
+     */
+    @Test
+    public void testReactiveAndServletEndpointsAgree() throws Exception {
+        JsonNode servlet = objectMapper.readTree(mockMvc.perform(get("/api/bitcoin/price"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        JsonNode reactive = objectMapper.readTree(reactive("/api/reactive/bitcoin/price"));
+        System.out.println("Servlet: " + servlet);
+        System.out.println("Reactive: " + reactive);
+
+        assertEquals(50050.0, servlet.at("/currencies/USD/rate").asDouble(), 1e-9);
+        assertEquals(servlet.get("currencies"), reactive.get("currencies"),
+                "Both stacks should return the same composite prices");
+
+        JsonNode original = objectMapper.readTree(reactive("/api/reactive/bitcoin/price/original"));
+        assertEquals(50050.0, original.at("/bpi/USD/rate_float").asDouble(), 1e-9);
+    }
+
+    private String reactive(String path) throws Exception {
+        MvcResult started = mockMvc.perform(get(path))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    /**
+     * Local provider answering with USD at the given rate and EUR at 90% of it
+     */
+    private static HttpServer provider(double usdRate) {
+        String body = String.format("""
+                {"time":{"updated":"Mar 29, 2025 11:53:00 UTC","updatedISO":"2025-03-29T11:53:00+00:00"},
+                 "chartName":"Bitcoin",
+                 "bpi":{"USD":{"code":"USD","symbol":"&#36;","rate":"x","description":"United States Dollar","rate_float":%s},
+                        "EUR":{"code":"EUR","symbol":"&euro;","rate":"x","description":"Euro","rate_float":%s}}}
+                """, usdRate, usdRate * 0.9);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/", exchange -> {
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.currency.demo.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReactiveCoindeskControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Reactive original data endpoint completes asynchronously with the Coindesk structure
+     */
+    @Test
+    public void testGetOriginalPrice() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/reactive/bitcoin/price/original"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        JsonNode rootNode = objectMapper.readTree(result.getResponse().getContentAsString());
+        assertTrue(rootNode.has("time"), "Response should include time field");
+        assertTrue(rootNode.has("bpi"), "Response should include bpi field");
+        assertTrue(rootNode.get("bpi").has("USD"), "bpi should include USD");
+    }
+
+    /**
+     * Reactive and servlet transforms return the same currencies, including estimated ones
+     */
+    @Test
+    public void testTransformedPriceMatchesServletEndpoint() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/reactive/bitcoin/price"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String reactiveContent = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String servletContent = mockMvc.perform(get("/api/bitcoin/price"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode reactive = objectMapper.readTree(reactiveContent);
+        JsonNode servlet = objectMapper.readTree(servletContent);
+        System.out.println("Reactive transformed data:");
+        System.out.println(reactiveContent);
+
+        assertTrue(reactive.has("updateTime"), "Response should include updateTime field");
+        assertEquals(servlet.get("currencies"), reactive.get("currencies"),
+                "Both stacks should return the same transformed currencies");
+    }
+}
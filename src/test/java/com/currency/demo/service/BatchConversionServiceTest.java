@@ -0,0 +1,151 @@
+package com.currency.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchConversionServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Tiny chunks so even small inputs are split across several parallel tasks
+    private final BatchConversionService service = new BatchConversionService(null, objectMapper, 3, 4);
+    // 1 BTC = 50,000 USD = 40,000 EUR = 7,500,000 JPY (estimated)
+    private final ConversionTable table = new ConversionTable(42, Instant.EPOCH,
+            CurrencyCodeIndex.of(List.of("USD", "EUR", "JPY")),
+            new double[] {50_000, 40_000, 7_500_000}, new boolean[] {false, false, true});
+
+    @AfterEach
+    public void shutdown() {
+        service.shutdown();
+    }
+
+    /**
+     * NDJSON results come back one per line in input order, across many chunks
+     */
+    @Test
+    public void testNdjsonKeepsInputOrder() throws Exception {
+        String[] codes = {"USD", "EUR", "JPY"};
+        StringBuilder input = new StringBuilder();
+        int items = 10_000;
+        for (int i = 0; i < items; i++) {
+            input.append("{\"from\":\"").append(codes[i % 3]).append("\",\"to\":\"").append(codes[(i + 1) % 3])
+                    .append("\",\"amount\":").append(i).append("}\n");
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BatchConversionService.Summary summary = convert(input.toString(), out, BatchConversionService.Format.NDJSON);
+
+        assertEquals(new BatchConversionService.Summary(42, items, 0), summary);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(items, lines.length);
+        for (int i = 0; i < items; i++) {
+            JsonNode result = objectMapper.readTree(lines[i]);
+            assertEquals(i, result.get("amount").asDouble(), "Results should keep input order");
+            assertEquals(codes[i % 3], result.get("from").asText());
+            int from = table.ordinalOf(codes[i % 3]);
+            int to = table.ordinalOf(codes[(i + 1) % 3]);
+            assertEquals(table.convert(from, to, i), result.get("result").asDouble(), 1e-9);
+        }
+    }
+
+    /**
+     * A JSON array comes back as a JSON array, with per-item errors instead of a failed batch
+     */
+    @Test
+    public void testJsonArrayWithItemErrors() throws Exception {
+        String input = """
+                [{"from": "eur", "to": "JPY", "amount": 100},
+                 {"from": "USD", "to": "XXX", "amount": 1},
+                 {"to": "USD", "amount": 1},
+                 {"from": "USD", "to": "EUR", "amount": "lots", "note": {"ignored": [1, 2]}},
+                 {"from": "USD", "to": "EUR"}]
+                """;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BatchConversionService.Summary summary = convert(input, out, BatchConversionService.Format.JSON);
+
+        assertEquals(5, summary.items());
+        assertEquals(3, summary.failed());
+        JsonNode results = objectMapper.readTree(out.toByteArray());
+        assertEquals(5, results.size());
+        assertEquals("EUR", results.get(0).get("from").asText(), "Codes are normalized");
+        assertEquals(18_750, results.get(0).get("result").asDouble(), 1e-6);
+        assertTrue(results.get(0).get("estimated").asBoolean());
+        assertEquals("XXX", results.get(1).get("to").asText());
+        assertEquals("unknown currency", results.get(1).get("error").asText());
+        assertEquals("unknown currency", results.get(2).get("error").asText());
+        assertEquals("invalid amount", results.get(3).get("error").asText());
+        assertEquals(0.8, results.get(4).get("result").asDouble(), 1e-12, "Amount defaults to 1");
+    }
+
+    /**
+     * An object or array amount only invalidates its own item; the items after it are still converted
+     */
+    @Test
+    public void testStructuredAmountIsInvalid() throws Exception {
+        String input = """
+                [{"from": "USD", "to": "EUR", "amount": {"x": 1}},
+                 {"from": "USD", "to": "EUR", "amount": [1, {"y": 2}]},
+                 {"from": "USD", "to": "EUR", "amount": 10}]
+                """;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BatchConversionService.Summary summary = convert(input, out, BatchConversionService.Format.JSON);
+
+        assertEquals(3, summary.items());
+        assertEquals(2, summary.failed());
+        JsonNode results = objectMapper.readTree(out.toByteArray());
+        assertEquals("invalid amount", results.get(0).get("error").asText());
+        assertEquals("invalid amount", results.get(1).get("error").asText());
+        assertEquals(8, results.get(2).get("result").asDouble(), 1e-12);
+
+        out.reset();
+        String ndjson = """
+                {"from": "USD", "to": "EUR", "amount": {"x": 1}}
+                {"from": "EUR", "to": "USD", "amount": 4}
+                """;
+        assertEquals(new BatchConversionService.Summary(42, 2, 1),
+                convert(ndjson, out, BatchConversionService.Format.NDJSON));
+    }
+
+    /**
+     * Empty input produces an empty result
+     */
+    @Test
+    public void testEmptyInput() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(0, convert("[]", out, BatchConversionService.Format.JSON).items());
+        assertEquals("[]", out.toString(StandardCharsets.UTF_8));
+
+        out.reset();
+        assertEquals(0, convert("", out, BatchConversionService.Format.NDJSON).items());
+        assertEquals(0, out.size());
+    }
+
+    /**
+     * Malformed input is reported as an IllegalArgumentException
+     */
+    @Test
+    public void testMalformedInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> convert("{\"from\":\"USD\"}", new ByteArrayOutputStream(), BatchConversionService.Format.JSON));
+        assertThrows(IllegalArgumentException.class,
+                () -> convert("[1, 2]", new ByteArrayOutputStream(), BatchConversionService.Format.JSON));
+        assertThrows(IllegalArgumentException.class,
+                () -> convert("{\"from\":\"USD\",", new ByteArrayOutputStream(), BatchConversionService.Format.NDJSON));
+    }
+
+    private BatchConversionService.Summary convert(String input, ByteArrayOutputStream out,
+                                                   BatchConversionService.Format format) throws Exception {
+        return service.convert(table, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out, format);
+    }
+}
@@ -0,0 +1,120 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.CoindeskResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoindeskResponseParserTest {
+
+    private static final String PAYLOAD = "{"
+            + "\"time\":{\"updated\":\"Mar 29, 2025 11:53:00 UTC\",\"updatedISO\":\"2025-03-29T11:53:00+00:00\","
+            + "\"updateduk\":\"Mar 29, 2025 at 11:53 BST\"},"
+            + "\"disclaimer\":\"This data was produced from the CoinDesk Bitcoin Price Index (USD).\","
+            + "\"chartName\":\"Bitcoin\","
+            + "\"bpi\":{"
+            + "\"USD\":{\"code\":\"USD\",\"symbol\":\"&#36;\",\"rate\":\"57,231.4983\",\"description\":\"United States Dollar\",\"rate_float\":57231.4983},"
+            + "\"GBP\":{\"code\":\"GBP\",\"symbol\":\"&pound;\",\"rate\":\"42,345.8722\",\"description\":\"British Pound Sterling\",\"rate_float\":42345.8722},"
+            + "\"EUR\":{\"code\":\"EUR\",\"symbol\":\"&euro;\",\"rate\":\"49,876.1232\",\"description\":\"Euro\",\"rate_float\":49876},"
+            + "\"XYZ\":[1,2,3]},"
+            + "\"extra\":{\"nested\":[{\"ignored\":true}]}"
+            + "}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CoindeskResponseParser parser = new CoindeskResponseParser(objectMapper);
+
+    /**
+     * Typed parse keeps the known fields in upstream order and skips everything else
+     */
+    @Test
+    public void testParseIntoTypedModel() throws IOException {
+        CoindeskResponse response = parse();
+
+        assertEquals("Mar 29, 2025 11:53:00 UTC", response.getTime().getUpdated());
+        assertEquals("2025-03-29T11:53:00+00:00", response.getTime().getUpdatedISO());
+        assertEquals("Bitcoin", response.getChartName());
+        assertNotNull(response.getDisclaimer());
+
+        assertEquals(3, response.getBpi().size(), "Non-object bpi entries should be skipped");
+        assertArrayEquals(new Object[]{"USD", "GBP", "EUR"}, response.getBpi().keySet().toArray());
+        assertEquals(57231.4983, response.getBpi().get("USD").getRateFloat());
+        assertEquals(49876.0, response.getBpi().get("EUR").getRateFloat(), "Integer rates should be read as double");
+        assertEquals("British Pound Sterling", response.getBpi().get("GBP").getDescription());
+    }
+
+    /**
+     * A missing, zero, negative or non-numeric rate_float is rejected instead of being priced at 0
+     */
+    @Test
+    public void testMissingOrNonPositiveRateIsInvalid() throws IOException {
+        assertTrue(CoindeskService.isValidResponse(parse()));
+
+        String time = "{\"time\":{\"updated\":\"Mar 29, 2025 11:53:00 UTC\"},\"bpi\":{"
+                + "\"GBP\":{\"code\":\"GBP\",\"rate_float\":42345.8722},\"USD\":";
+        for (String usd : new String[] {"{\"code\":\"USD\",\"rate\":\"57,231.4983\"}",
+                "{\"code\":\"USD\",\"rate_float\":0}", "{\"code\":\"USD\",\"rate_float\":-1.5}",
+                "{\"code\":\"USD\",\"rate_float\":null}", "{\"code\":\"USD\",\"rate_float\":{\"x\":1}}"}) {
+            CoindeskResponse response = parser.parse(new ByteArrayInputStream(
+                    (time + usd + "}}").getBytes(StandardCharsets.UTF_8)));
+
+            assertEquals(2, response.getBpi().size(), usd);
+            assertEquals(42345.8722, response.getBpi().get("GBP").getRateFloat(), usd);
+            assertFalse(response.getBpi().get("USD").getRateFloat() > 0, usd);
+            assertFalse(CoindeskService.isValidResponse(response), usd);
+        }
+    }
+
+    /**
+     * Serializing the typed model keeps the original Coindesk field names
+     */
+    @Test
+    public void testSerializedFieldNamesMatchUpstream() throws IOException {
+        String json = objectMapper.writeValueAsString(parse());
+
+        assertTrue(json.contains("\"rate_float\":57231.4983"), json);
+        assertTrue(json.contains("\"updatedISO\""), json);
+        assertTrue(json.contains("\"updateduk\""), json);
+    }
+
+    /**
+     * Allocation comparison against the previous Map-based deserialization
+     */
+    @Test
+    public void testStreamingParseAllocatesLessThanMap() throws IOException {
+        int iterations = 2000;
+        byte[] body = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        // Warm up both paths
+        for (int i = 0; i < iterations; i++) {
+            parser.parse(new ByteArrayInputStream(body));
+            objectMapper.readValue(body, Map.class);
+        }
+
+        long start = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.readValue(body, Map.class);
+        }
+        long mapBytes = (threads.getCurrentThreadAllocatedBytes() - start) / iterations;
+
+        start = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            parser.parse(new ByteArrayInputStream(body));
+        }
+        long streamingBytes = (threads.getCurrentThreadAllocatedBytes() - start) / iterations;
+
+        System.out.println("Bytes allocated per parse - Map: " + mapBytes + ", streaming: " + streamingBytes);
+        assertTrue(streamingBytes < mapBytes, "Streaming parse should allocate less than the Map-based path");
+    }
+
+    private CoindeskResponse parse() throws IOException {
+        return parser.parse(new ByteArrayInputStream(PAYLOAD.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -1,7 +1,13 @@
 package com.currency.demo.service;
 
+import com.currency.demo.model.CoindeskResponse;
 import com.currency.demo.model.Currency;
+import com.currency.demo.model.CurrencyQuote;
+import com.currency.demo.model.PriceSnapshot;
+import com.currency.demo.model.PriceSource;
 import com.currency.demo.repository.CurrencyRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,9 +15,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.Arrays;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +38,15 @@ public class CoindeskServiceTest {
     @Autowired
     private CurrencyRepository currencyRepository;
 
+    @Autowired
+    private CurrencyCatalog currencyCatalog;
+
+    @Autowired
+    private CircuitBreaker upstreamCircuitBreaker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private RestTemplate restTemplate;
     
@@ -49,10 +66,13 @@ public class CoindeskServiceTest {
         mockEmptyData = new HashMap<>();
         
         // Default RestTemplate mock behavior - return complete data
-        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(mockBitcoinData);
+        UpstreamStubs.respondWith(restTemplate, mockBitcoinData);
         
         // Setup test currencies
         setupTestCurrencies();
+
+        // Failures from other tests must not leave the circuit open
+        upstreamCircuitBreaker.reset();
     }
     
     private void setupCompleteMockData() {
@@ -126,6 +146,9 @@ public class CoindeskServiceTest {
         ensureCurrencyExists("CNY", "人民幣");
         ensureCurrencyExists("HKD", "港幣");
         ensureCurrencyExists("TWD", "台幣");
+        
+        // Test data is written through the repository, so rebuild the catalog used by the transform
+        currencyCatalog.reload();
     }
 
     /**
@@ -134,27 +157,28 @@ public class CoindeskServiceTest {
     @Test
     public void testGetOriginalData() {
         // Set RestTemplate to return complete data
-        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(mockBitcoinData);
+        UpstreamStubs.respondWith(restTemplate, mockBitcoinData);
         
         // Get original data
-        Map<String, Object> originalData = coindeskService.getOriginalData();
+        CoindeskResponse originalData = coindeskService.getOriginalData();
         
         // Print data content
         System.out.println("Original Coindesk API data:");
-        System.out.println(originalData);
+        System.out.println(originalData.getBpi().keySet());
         
         // Verify data structure
         assertNotNull(originalData);
-        assertTrue(originalData.containsKey("time"), "Should contain time field");
-        assertTrue(originalData.containsKey("disclaimer"), "Should contain disclaimer field");
-        assertTrue(originalData.containsKey("bpi"), "Should contain bpi field");
+        assertNotNull(originalData.getTime(), "Should contain time field");
+        assertNotNull(originalData.getDisclaimer(), "Should contain disclaimer field");
+        assertNotNull(originalData.getBpi(), "Should contain bpi field");
+        assertEquals("Mar 29, 2025 11:53:00 UTC", originalData.getTime().getUpdated());
         
         // Verify bpi structure
-        Map<String, Object> bpi = (Map<String, Object>) originalData.get("bpi");
-        assertNotNull(bpi);
+        Map<String, CoindeskResponse.BPI> bpi = originalData.getBpi();
         assertTrue(bpi.containsKey("USD"), "bpi should contain USD");
         assertTrue(bpi.containsKey("GBP"), "bpi should contain GBP");
         assertTrue(bpi.containsKey("EUR"), "bpi should contain EUR");
+        assertEquals(57231.4983, bpi.get("USD").getRateFloat());
     }
 
     /**
@@ -163,18 +187,17 @@ public class CoindeskServiceTest {
     @Test
     public void testGetOriginalDataWithApiFailure() {
         // Mock API call failure
-        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenThrow(new RuntimeException("API unreachable"));
+        UpstreamStubs.failWith(restTemplate, new RuntimeException("API unreachable"));
         
         // Get original data (should return default data even if API fails)
-        Map<String, Object> originalData = coindeskService.getOriginalData();
+        CoindeskResponse originalData = coindeskService.getOriginalData();
         
         // Verify default data is returned
         assertNotNull(originalData);
-        assertTrue(originalData.containsKey("bpi"), "Should contain bpi field even with API failure");
+        assertNotNull(originalData.getBpi(), "Should contain bpi field even with API failure");
         
         // Verify bpi contains at least USD
-        Map<String, Object> bpi = (Map<String, Object>) originalData.get("bpi");
-        assertTrue(bpi.containsKey("USD"), "Default data should contain USD");
+        assertTrue(originalData.getBpi().containsKey("USD"), "Default data should contain USD");
     }
     
     /**
@@ -183,18 +206,17 @@ public class CoindeskServiceTest {
     @Test
     public void testGetOriginalDataWithIncompleteResponse() {
         // Mock API returning incomplete data
-        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(mockIncompleteData);
+        UpstreamStubs.respondWith(restTemplate, mockIncompleteData);
         
         // Get original data (should return default data)
-        Map<String, Object> originalData = coindeskService.getOriginalData();
+        CoindeskResponse originalData = coindeskService.getOriginalData();
         
         // Verify default data is returned
         assertNotNull(originalData);
-        assertTrue(originalData.containsKey("bpi"), "Should contain bpi field");
+        assertNotNull(originalData.getBpi(), "Should contain bpi field");
         
         // Verify bpi contains at least USD
-        Map<String, Object> bpi = (Map<String, Object>) originalData.get("bpi");
-        assertTrue(bpi.containsKey("USD"), "Default data should contain USD");
+        assertTrue(originalData.getBpi().containsKey("USD"), "Default data should contain USD");
     }
 
     /**
@@ -203,10 +225,10 @@ public class CoindeskServiceTest {
     @Test
     public void testGetTransformedData() {
         // Set RestTemplate to return complete data
-        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(mockBitcoinData);
+        UpstreamStubs.respondWith(restTemplate, mockBitcoinData);
         
         // Get transformed data
-        Map<String, Object> transformedData = coindeskService.getTransformedData();
+        PriceSnapshot transformedData = coindeskService.getTransformedData();
         
         // Print data content
         System.out.println("Transformed data:");
@@ -214,21 +236,24 @@ public class CoindeskServiceTest {
         
         // Verify data structure
         assertNotNull(transformedData);
-        assertTrue(transformedData.containsKey("updateTime"), "Should contain updateTime field");
-        assertTrue(transformedData.containsKey("currencies"), "Should contain currencies field");
+        assertEquals("2025/03/29 11:53:00", transformedData.updateTime());
         
         // Verify currencies structure
-        Map<String, Object> currencies = (Map<String, Object>) transformedData.get("currencies");
+        Map<String, CurrencyQuote> currencies = transformedData.currencies();
         assertNotNull(currencies);
         assertTrue(currencies.containsKey("USD"), "currencies should contain USD");
         
         // Verify currency fields
-        Map<String, Object> usd = (Map<String, Object>) currencies.get("USD");
+        CurrencyQuote usd = currencies.get("USD");
         assertNotNull(usd);
-        assertEquals("USD", usd.get("code"));
-        assertNotNull(usd.get("chineseName"));
-        assertNotNull(usd.get("rate"));
-        assertTrue((Double) usd.get("rate") > 0, "Rate should be greater than 0");
+        assertEquals("USD", usd.code());
+        assertNotNull(usd.chineseName());
+        assertTrue(usd.rate() > 0, "Rate should be greater than 0");
+        assertFalse(usd.estimated(), "Coindesk quotes should not be marked as estimated");
+        
+        // Verify currencies are ordered by code
+        List<String> codes = new ArrayList<>(currencies.keySet());
+        assertEquals(codes.stream().sorted().toList(), codes);
     }
     
     /**
@@ -255,13 +280,13 @@ public class CoindeskServiceTest {
         usdOnlyData.put("bpi", bpi);
         
         // Set RestTemplate to return data with only USD
-        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(usdOnlyData);
+        UpstreamStubs.respondWith(restTemplate, usdOnlyData);
         
         // Get transformed data
-        Map<String, Object> transformedData = coindeskService.getTransformedData();
+        PriceSnapshot transformedData = coindeskService.getTransformedData();
         
         // Verify additional currencies are added
-        Map<String, Object> currencies = (Map<String, Object>) transformedData.get("currencies");
+        Map<String, CurrencyQuote> currencies = transformedData.currencies();
         
         // Check if at least one additional currency is added
         boolean hasExtraCurrency = false;
@@ -270,21 +295,141 @@ public class CoindeskServiceTest {
                 hasExtraCurrency = true;
                 
                 // Verify the added currency data format is correct
-                Map<String, Object> currency = (Map<String, Object>) currencies.get(code);
-                assertEquals(code, currency.get("code"));
-                assertNotNull(currency.get("chineseName"));
-                assertNotNull(currency.get("rate"));
-                assertTrue((Double) currency.get("rate") > 0, "Rate should be greater than 0");
+                CurrencyQuote currency = currencies.get(code);
+                assertEquals(code, currency.code());
+                assertNotNull(currency.chineseName());
+                assertTrue(currency.rate() > 0, "Rate should be greater than 0");
                 
                 // Verify marked as estimated
-                assertTrue((Boolean) currency.getOrDefault("estimated", false), 
+                assertTrue(currency.estimated(), 
                            "Extra currencies should be marked as estimated");
+                // Verify the FX ratio behind the estimate reports when it was published
+                assertNotNull(currency.ratioAsOf(), "Estimated currencies should carry the ratio's timestamp");
             }
         }
         
         assertTrue(hasExtraCurrency, "Should add at least one extra currency");
     }
     
+    /**
+     * Test update time formatting, including values that are not in Coindesk's format
+     */
+    @Test
+    public void testFormatUpdateTime() {
+        assertEquals("2025/03/29 11:53:00", CoindeskService.formatUpdateTime("Mar 29, 2025 11:53:00 UTC"));
+        assertEquals("2024/12/01 00:00:59", CoindeskService.formatUpdateTime("Dec 01, 2024 00:00:59 GMT"));
+        
+        assertNull(CoindeskService.formatUpdateTime(null));
+        assertNull(CoindeskService.formatUpdateTime(""));
+        assertNull(CoindeskService.formatUpdateTime("2025-03-29T11:53:00+00:00"));
+        assertNull(CoindeskService.formatUpdateTime("Foo 29, 2025 11:53:00 UTC"));
+        assertNull(CoindeskService.formatUpdateTime("Mar 29, 2025 24:53:00 UTC"));
+        assertNull(CoindeskService.formatUpdateTime("Mar 29, 2025 11:53:00"));
+        assertNull(CoindeskService.formatUpdateTime("Mar 29, 20X5 11:53:00 UTC"));
+    }
+    
+    /**
+     * Test dates that do not exist are rejected, while month ends and leap days are kept
+     */
+    @Test
+    public void testFormatUpdateTimeRejectsInvalidDates() {
+        assertNull(CoindeskService.formatUpdateTime("Feb 30, 2025 11:53:00 UTC"));
+        assertNull(CoindeskService.formatUpdateTime("Feb 29, 2025 11:53:00 UTC"));
+        assertNull(CoindeskService.formatUpdateTime("Apr 31, 2025 11:53:00 UTC"));
+        assertNull(CoindeskService.formatUpdateTime("Mar 00, 2025 11:53:00 UTC"));
+        assertNull(CoindeskService.formatUpdateTime("Mar 32, 2025 11:53:00 UTC"));
+        
+        assertEquals("2024/02/29 11:53:00", CoindeskService.formatUpdateTime("Feb 29, 2024 11:53:00 UTC"));
+        assertEquals("2025/04/30 11:53:00", CoindeskService.formatUpdateTime("Apr 30, 2025 11:53:00 UTC"));
+        assertEquals("2025/12/31 23:59:59", CoindeskService.formatUpdateTime("Dec 31, 2025 23:59:59 UTC"));
+    }
+    
+    /**
+     * Test failures fall back to the last successfully fetched data rather than mock data
+     */
+    @Test
+    public void testFailureServesLastKnownGood() {
+        UpstreamStubs.respondWith(restTemplate, mockBitcoinData);
+        CoindeskFetch fresh = coindeskService.fetch();
+        assertEquals(PriceSource.UPSTREAM, fresh.source());
+
+        UpstreamStubs.failWith(restTemplate, new RuntimeException("API unreachable"));
+        CoindeskFetch fallback = coindeskService.fetch();
+
+        assertEquals(PriceSource.LAST_KNOWN_GOOD, fallback.source());
+        assertSame(fresh.data(), fallback.data(), "Last successful response should be reused");
+        assertEquals(fresh.fetchedAt(), fallback.fetchedAt(), "Fallback should keep the original fetch time");
+    }
+
+    /**
+     * Test repeated failures open the circuit, after which calls skip the upstream entirely
+     */
+    @Test
+    public void testOpenCircuitSkipsUpstream() {
+        UpstreamStubs.failWith(restTemplate, new RuntimeException("API unreachable"));
+        for (int i = 0; i < 10 && upstreamCircuitBreaker.getState() == CircuitBreaker.State.CLOSED; i++) {
+            coindeskService.fetch();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, upstreamCircuitBreaker.getState(), "Failures should open the circuit");
+        assertFalse(coindeskService.isUpstreamAvailable());
+
+        clearInvocations(restTemplate);
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            assertNotNull(coindeskService.fetch().data().getBpi().get("USD"));
+        }
+        long averageMicros = (System.nanoTime() - start) / 1000 / 1000;
+        System.out.println("Average fetch with open circuit: " + averageMicros + " us");
+        verifyNoInteractions(restTemplate);
+        assertTrue(averageMicros < 1000, "Open-circuit fallback should not wait on the network");
+    }
+
+    /**
+     * Test upstream calls are timed by outcome and fallbacks are counted by source
+     */
+    @Test
+    public void testUpstreamOutcomesAreTimed() {
+        long successes = upstreamCount("success");
+        long invalid = upstreamCount("invalid");
+        long timeouts = upstreamCount("timeout");
+        double fallbacks = meterRegistry.get("coindesk.fallbacks").tag("source", "last_known_good").counter().count();
+
+        UpstreamStubs.respondWith(restTemplate, mockBitcoinData);
+        coindeskService.fetch();
+        UpstreamStubs.respondWith(restTemplate, mockIncompleteData);
+        coindeskService.fetch();
+        UpstreamStubs.failWith(restTemplate, new ResourceAccessException("Read timed out", new SocketTimeoutException()));
+        coindeskService.fetch();
+
+        assertEquals(successes + 1, upstreamCount("success"));
+        assertEquals(invalid + 1, upstreamCount("invalid"));
+        assertEquals(timeouts + 1, upstreamCount("timeout"));
+        assertEquals(fallbacks + 2,
+                meterRegistry.get("coindesk.fallbacks").tag("source", "last_known_good").counter().count());
+    }
+
+    /**
+     * Test the transform is timed and its currencies counted as live or estimated
+     */
+    @Test
+    public void testTransformIsMeasured() {
+        ensureCurrencyExists("JPY", "Japanese Yen");
+        long transforms = meterRegistry.get("coindesk.transform").timer().count();
+        double live = meterRegistry.get("coindesk.transform.currencies").tag("rate", "live").counter().count();
+        double estimated = meterRegistry.get("coindesk.transform.currencies").tag("rate", "estimated").counter().count();
+
+        coindeskService.transform(coindeskService.getOriginalData(), currencyCatalog.reload());
+
+        assertEquals(transforms + 1, meterRegistry.get("coindesk.transform").timer().count());
+        assertEquals(live + 3, meterRegistry.get("coindesk.transform.currencies").tag("rate", "live").counter().count());
+        assertTrue(meterRegistry.get("coindesk.transform.currencies").tag("rate", "estimated").counter().count() > estimated,
+                "JPY is not in the Coindesk response and should be estimated");
+    }
+
+    private long upstreamCount(String outcome) {
+        return meterRegistry.get("coindesk.upstream.requests").tag("outcome", outcome).timer().count();
+    }
+
     /**
      * Ensure currency exists
      */
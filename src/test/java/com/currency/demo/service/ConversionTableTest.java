@@ -0,0 +1,57 @@
+package com.currency.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConversionTableTest {
+
+    /**
+     * Codes resolve to their list position regardless of case; anything else resolves to -1
+     */
+    @Test
+    public void testCodeIndex() {
+        CurrencyCodeIndex index = CurrencyCodeIndex.of(List.of("USD", "EUR", "JPY"));
+
+        assertEquals(0, index.ordinalOf("USD"));
+        assertEquals(1, index.ordinalOf("eur"));
+        assertEquals(2, index.ordinalOf(new StringBuilder("JpY")));
+        assertEquals(-1, index.ordinalOf("GBP"), "Unknown code");
+        assertEquals(-1, index.ordinalOf("US"), "Too short");
+        assertEquals(-1, index.ordinalOf("US1"), "Not a letter");
+        assertEquals(-1, index.ordinalOf(null));
+        assertEquals("JPY", index.codeAt(2));
+        assertTrue(index.hasCodes(List.of("USD", "EUR", "JPY")));
+        assertFalse(index.hasCodes(List.of("EUR", "USD", "JPY")));
+
+        assertThrows(IllegalArgumentException.class, () -> CurrencyCodeIndex.of(List.of("USD", "usd")));
+        assertThrows(IllegalArgumentException.class, () -> CurrencyCodeIndex.of(List.of("DOGE")));
+    }
+
+    /**
+     * Cross rates are derived from the bitcoin price in each currency
+     */
+    @Test
+    public void testCrossRates() {
+        CurrencyCodeIndex index = CurrencyCodeIndex.of(List.of("USD", "EUR", "JPY"));
+        // 1 BTC = 50,000 USD = 40,000 EUR = 7,500,000 JPY
+        ConversionTable table = new ConversionTable(7, Instant.EPOCH, index,
+                new double[] {50_000, 40_000, 7_500_000}, new boolean[] {false, false, true});
+
+        int usd = table.ordinalOf("USD");
+        int eur = table.ordinalOf("EUR");
+        int jpy = table.ordinalOf("JPY");
+        assertEquals(0.8, table.rate(usd, eur), 1e-12);
+        assertEquals(1.25, table.rate(eur, usd), 1e-12);
+        assertEquals(187.5, table.rate(eur, jpy), 1e-9);
+        assertEquals(1.0, table.rate(jpy, jpy));
+        assertEquals(18_750, table.convert(eur, jpy, 100), 1e-6);
+
+        assertFalse(table.isEstimated(usd, eur));
+        assertTrue(table.isEstimated(eur, jpy), "JPY rate is estimated");
+        assertEquals(7, table.getSnapshotVersion());
+    }
+}
@@ -0,0 +1,84 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.Currency;
+import com.currency.demo.repository.CurrencyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CurrencyCacheTest {
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Repeated findByCode and findById calls are answered from the cache without SQL
+     */
+    @Test
+    public void testRepeatedReadsAreCached() {
+        Currency created = currencyService.createCurrency(new Currency("NZD", "紐幣"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        currencyRepository.findByCode("NZD");
+        currencyRepository.findById(created.getId());
+        statistics.clear();
+        for (int i = 0; i < 5; i++) {
+            assertEquals("紐幣", currencyRepository.findByCode("NZD").getName());
+            assertTrue(currencyRepository.findById(created.getId()).isPresent());
+        }
+
+        System.out.println("Query cache hits: " + statistics.getQueryCacheHitCount()
+                + ", entity cache hits: " + statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount(), "Cached reads should not reach the database");
+        assertEquals(5, statistics.getQueryCacheHitCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 5, "Entities should come from the second-level cache");
+
+        assertNotNull(meterRegistry.find("hibernate.cache.query.requests").tag("result", "hit").functionCounter(),
+                "Query cache statistics should be exposed as metrics");
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests").tag("region", "currency").functionCounter(),
+                "Entity cache statistics should be exposed as metrics");
+
+        currencyService.deleteCurrency(created.getId());
+    }
+
+    /**
+     * Writes through CurrencyService invalidate cached entities and query results
+     */
+    @Test
+    public void testWritesEvictCachedEntries() {
+        Currency created = currencyService.createCurrency(new Currency("ZAR", "南非幣"));
+        assertEquals("南非幣", currencyRepository.findByCode("ZAR").getName());
+
+        created.setName("南非蘭特");
+        currencyService.updateCurrency(created.getId(), created);
+        assertEquals("南非蘭特", currencyRepository.findByCode("ZAR").getName());
+        assertEquals("南非蘭特", currencyRepository.findById(created.getId()).orElseThrow().getName());
+
+        currencyService.upsertCurrencies(List.of(new Currency("ZAR", "蘭特")));
+        assertEquals("蘭特", currencyRepository.findByCode("ZAR").getName());
+
+        currencyService.deleteCurrencies(List.of(created.getId()));
+        assertNull(currencyRepository.findByCode("ZAR"), "Deleted currency should not be served from the cache");
+        assertTrue(currencyRepository.findById(created.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,54 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.Currency;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CurrencyCatalogTest {
+
+    @Autowired
+    private CurrencyCatalog currencyCatalog;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    /**
+     * Committed create/update/delete calls rebuild the catalog
+     */
+    @Test
+    public void testCatalogFollowsCommittedChanges() {
+        String code = "THB";
+        Currency existingCurrency = currencyService.getCurrencyByCode(code);
+        if (existingCurrency != null) {
+            currencyService.deleteCurrency(existingCurrency.getId());
+        }
+        long initialVersion = currencyCatalog.getEntries().version();
+
+        Currency created = currencyService.createCurrency(new Currency(code, "泰銖"));
+        CurrencyCatalog.Entries afterCreate = currencyCatalog.getEntries();
+        assertTrue(afterCreate.version() > initialVersion, "Create should publish a new catalog version");
+        assertEquals("泰銖", afterCreate.getName(code));
+
+        created.setName("泰國銖");
+        currencyService.updateCurrency(created.getId(), created);
+        assertEquals("泰國銖", currencyCatalog.getEntries().getName(code));
+
+        currencyService.deleteCurrency(created.getId());
+        assertFalse(currencyCatalog.getEntries().contains(code), "Deleted currency should leave the catalog");
+    }
+
+    /**
+     * Catalog entries cannot be modified by callers
+     */
+    @Test
+    public void testEntriesAreImmutable() {
+        CurrencyCatalog.Entries entries = currencyCatalog.getEntries();
+        assertThrows(UnsupportedOperationException.class, () -> entries.namesByCode().put("XXX", "test"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.Currency;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CurrencyServiceTest {
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyCatalog currencyCatalog;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Bulk create, upsert and delete run in a few batched statements rather than one per row
+     */
+    @Test
+    public void testBulkOperationsAreBatched() {
+        List<Currency> currencies = new ArrayList<>();
+        for (char first = 'A'; first <= 'T'; first++) {
+            for (char second = 'A'; second <= 'Y'; second++) {
+                currencies.add(new Currency("9" + first + second, "Bulk " + first + second));
+            }
+        }
+        int rows = currencies.size();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<Currency> created = currencyService.createCurrencies(currencies);
+        long insertStatements = statistics.getPrepareStatementCount();
+        System.out.println(rows + " inserts used " + insertStatements + " prepared statements");
+        assertEquals(rows, created.size());
+        assertEquals(rows, statistics.getEntityInsertCount());
+        assertTrue(insertStatements < rows / 10, "Inserts should be batched, got " + insertStatements + " statements");
+        assertEquals("Bulk AA", currencyCatalog.getEntries().getName("9AA"));
+
+        List<Currency> changes = new ArrayList<>();
+        for (Currency currency : currencies) {
+            changes.add(new Currency(currency.getCode(), "Upserted"));
+        }
+        changes.add(new Currency("9ZZ", "New"));
+        statistics.clear();
+        List<Currency> upserted = currencyService.upsertCurrencies(changes);
+        long upsertStatements = statistics.getPrepareStatementCount();
+        System.out.println((rows + 1) + " upserts used " + upsertStatements + " prepared statements");
+        assertEquals(rows + 1, upserted.size());
+        assertEquals(rows, statistics.getEntityUpdateCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertTrue(upsertStatements < rows / 10, "Upserts should be batched, got " + upsertStatements + " statements");
+        assertEquals("Upserted", currencyService.getCurrencyByCode("9AA").getName());
+
+        statistics.clear();
+        currencyService.deleteCurrencies(upserted.stream().map(Currency::getId).toList());
+        // One DELETE plus the catalog reload after commit
+        assertEquals(2, statistics.getPrepareStatementCount(), "Bulk delete should be a single statement");
+        assertTrue(currencyService.getCurrenciesByCodes(List.of("9AA", "9ZZ")).isEmpty());
+        assertFalse(currencyCatalog.getEntries().contains("9AA"), "Deleted currencies should leave the catalog");
+    }
+}
@@ -0,0 +1,141 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.FxRate;
+import com.currency.demo.repository.FxRateRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class FxRateServiceTest {
+
+    @Autowired
+    private FxRateService fxRateService;
+
+    @Autowired
+    private FxRateRepository fxRateRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    public void restoreBundledRatios() {
+        // Other tests share the database; put the bundled ratios back
+        fxRateService.refresh();
+    }
+
+    /**
+     * The bundled ratios are loaded and looked up by currency ordinal
+     */
+    @Test
+    public void testBundledRatiosAreLoaded() {
+        FxRateTable table = fxRateService.getTable();
+        int jpy = table.ordinalOf("JPY");
+
+        assertTrue(jpy >= 0, "JPY should have a ratio");
+        assertEquals(0.009, table.ratio(jpy), 1e-12);
+        assertNotNull(table.asOf(jpy));
+        assertEquals(table.asOf(jpy).toString(), table.asOfText(jpy));
+        assertEquals(-1, table.ordinalOf("XXX"));
+        assertEquals(0.5, fxRateService.getDefaultRatio(), 1e-12);
+    }
+
+    /**
+     * The table is published at startup, so price transforms never have to load it
+     */
+    @Test
+    public void testTableIsLoadedAtStartup() {
+        assertNotNull(fxRateService.getLoadedTable());
+        assertSame(fxRateService.getLoadedTable(), fxRateService.getTable());
+    }
+
+    /**
+     * A refresh persists the source's ratios, drops codes it no longer lists and publishes a new table
+     */
+    @Test
+    public void testRefreshPersistsAndSwapsTable() throws IOException {
+        Path source = tempDir.resolve("fx-rates.json");
+        Files.writeString(source, """
+                {"asOf": "2025-03-29T00:00:00Z", "ratios": {"JPY": 0.0067, "thb": 0.029, "BAD": -1, "TOOLONG": 1}}
+                """);
+        FxRateService fileService = fileService(source);
+        FxRateTable before = fxRateService.getTable();
+
+        FxRateTable table = fileService.refresh();
+        System.out.println("Refreshed FX table: " + table.size() + " ratios");
+
+        assertEquals(2, table.size(), "Invalid entries should be skipped");
+        assertEquals(0.0067, table.ratio(table.ordinalOf("JPY")), 1e-12);
+        assertEquals(Instant.parse("2025-03-29T00:00:00Z"), table.asOf(table.ordinalOf("THB")));
+
+        Map<String, Double> stored = fxRateRepository.findAll().stream()
+                .collect(Collectors.toMap(FxRate::getCode, FxRate::getRatio));
+        assertEquals(Map.of("JPY", 0.0067, "THB", 0.029), stored);
+
+        // The application's table only changes when it reloads
+        assertSame(before, fxRateService.getTable());
+        FxRateTable reloaded = fxRateService.reload();
+        assertTrue(reloaded.getVersion() > before.getVersion());
+        assertEquals(-1, reloaded.ordinalOf("CNY"), "Codes missing from the source should be removed");
+    }
+
+    /**
+     * Without a timestamp in the source, unchanged ratios keep the time they were first stored
+     */
+    @Test
+    public void testUnchangedRatiosKeepTheirTimestamp() throws IOException {
+        Path source = tempDir.resolve("fx-rates.json");
+        Files.writeString(source, "{\"ratios\": {\"JPY\": 0.0067, \"CNY\": 0.14}}");
+        FxRateService fileService = fileService(source);
+
+        FxRateTable first = fileService.refresh();
+        Files.writeString(source, "{\"ratios\": {\"JPY\": 0.0067, \"CNY\": 0.138}}");
+        FxRateTable second = fileService.refresh();
+
+        assertEquals(first.asOf(first.ordinalOf("JPY")), second.asOf(second.ordinalOf("JPY")));
+        assertFalse(second.asOf(second.ordinalOf("CNY")).isBefore(first.asOf(first.ordinalOf("CNY"))));
+        assertEquals(0.138, second.ratio(second.ordinalOf("CNY")), 1e-12);
+    }
+
+    /**
+     * A source that cannot be read leaves the current table in place
+     */
+    @Test
+    public void testFailedRefreshKeepsCurrentTable() {
+        FxRateService fileService = fileService(tempDir.resolve("missing.json"));
+        FxRateTable before = fileService.reload();
+
+        assertThrows(RuntimeException.class, fileService::refresh);
+        assertSame(before, fileService.getTable());
+    }
+
+    private FxRateService fileService(Path source) {
+        return new FxRateService(fxRateRepository, transactionTemplate, resourceLoader, objectMapper,
+                source.toUri().toString(), 0.5);
+    }
+}
@@ -0,0 +1,39 @@
+package com.currency.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogSamplerTest {
+
+    /**
+     * The first occurrence is logged and repeats within the interval are only counted
+     */
+    @Test
+    public void testRepeatsWithinIntervalAreSuppressed() {
+        LogSampler sampler = new LogSampler(Duration.ofHours(1));
+
+        assertEquals(0, sampler.sample(), "First occurrence should be logged");
+        for (int i = 0; i < 100; i++) {
+            assertEquals(-1, sampler.sample(), "Repeats inside the interval should be suppressed");
+        }
+    }
+
+    /**
+     * After the interval, the next occurrence is logged with the count of suppressed ones
+     */
+    @Test
+    public void testSuppressedCountIsReported() throws InterruptedException {
+        LogSampler sampler = new LogSampler(Duration.ofMillis(50));
+
+        assertEquals(0, sampler.sample());
+        assertEquals(-1, sampler.sample());
+        assertEquals(-1, sampler.sample());
+        Thread.sleep(60);
+
+        assertEquals(2, sampler.sample(), "Should report the occurrences skipped since the last line");
+        assertEquals(-1, sampler.sample());
+    }
+}
@@ -0,0 +1,90 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.PriceCandle;
+import com.currency.demo.model.PricePoint;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceSeriesTest {
+
+    /**
+     * Range queries return samples in [from, to) in order
+     */
+    @Test
+    public void testRange() {
+        PriceSeries series = new PriceSeries(10);
+        for (int i = 0; i < 5; i++) {
+            series.add(1000L * i, 100.0 + i);
+        }
+
+        List<PricePoint> points = series.range(1000, 4000);
+        assertEquals(3, points.size());
+        assertEquals(1000, points.get(0).time().toEpochMilli());
+        assertEquals(103.0, points.get(2).rate());
+        assertTrue(series.range(10_000, 20_000).isEmpty());
+    }
+
+    /**
+     * Once full, the oldest samples are overwritten and ordering is preserved across the wrap
+     */
+    @Test
+    public void testRingBufferOverwritesOldest() {
+        PriceSeries series = new PriceSeries(4);
+        for (int i = 0; i < 10; i++) {
+            series.add(1000L * i, i);
+        }
+        assertFalse(series.add(5000, 99.0), "Out-of-order samples should be ignored");
+
+        List<PricePoint> points = series.range(0, Long.MAX_VALUE);
+        assertEquals(4, series.size());
+        assertEquals(List.of(6.0, 7.0, 8.0, 9.0), points.stream().map(PricePoint::rate).toList());
+    }
+
+    /**
+     * Downsampling aggregates open, high, low, close and average per aligned bucket
+     */
+    @Test
+    public void testDownsample() {
+        PriceSeries series = new PriceSeries(16);
+        double[] rates = {10, 12, 8, 11, 20, 18};
+        for (int i = 0; i < rates.length; i++) {
+            series.add(1000L * i, rates[i]);
+        }
+
+        List<PriceCandle> candles = series.downsample(0, 6000, 4000);
+        assertEquals(2, candles.size());
+
+        PriceCandle first = candles.get(0);
+        assertEquals(0, first.time().toEpochMilli());
+        assertEquals(10, first.open());
+        assertEquals(12, first.high());
+        assertEquals(8, first.low());
+        assertEquals(11, first.close());
+        assertEquals(10.25, first.average());
+        assertEquals(4, first.count());
+
+        PriceCandle second = candles.get(1);
+        assertEquals(4000, second.time().toEpochMilli());
+        assertEquals(20, second.open());
+        assertEquals(18, second.close());
+        assertEquals(2, second.count());
+    }
+
+    /**
+     * A bucket narrower than 1 ms is rejected instead of dividing by zero
+     */
+    @Test
+    public void testSubMillisecondBucketIsRejected() {
+        PriceSeries series = new PriceSeries(16);
+        series.add(1000L, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> series.downsample(0, 6000, 0));
+        assertFalse(PriceHistoryService.isValidBucket(Duration.ofNanos(500_000)));
+        assertFalse(PriceHistoryService.isValidBucket(Duration.ofSeconds(Long.MAX_VALUE)));
+        assertTrue(PriceHistoryService.isValidBucket(Duration.ofMillis(1)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.BitcoinPriceSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class PriceSnapshotServiceTest {
+
+    @Autowired
+    private PriceSnapshotService priceSnapshotService;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    public void setup() {
+        Map<String, Object> data = new HashMap<>();
+
+        Map<String, Object> time = new HashMap<>();
+        time.put("updated", "Mar 29, 2025 11:53:00 UTC");
+        data.put("time", time);
+
+        Map<String, Object> bpi = new HashMap<>();
+        Map<String, Object> usd = new HashMap<>();
+        usd.put("code", "USD");
+        usd.put("rate_float", 57231.4983);
+        bpi.put("USD", usd);
+        data.put("bpi", bpi);
+
+        UpstreamStubs.respondWith(restTemplate, data);
+    }
+
+    /**
+     * Repeated reads are served from memory without calling Coindesk again
+     */
+    @Test
+    public void testGetSnapshotServesFromMemory() {
+        BitcoinPriceSnapshot first = priceSnapshotService.refresh();
+        clearInvocations(restTemplate);
+
+        for (int i = 0; i < 5; i++) {
+            assertSame(first, priceSnapshotService.getSnapshot());
+        }
+        verifyNoInteractions(restTemplate);
+
+        assertNotNull(first.getTransformedData().getQuote("USD"), "Snapshot should contain transformed USD");
+    }
+
+    /**
+     * Each refresh publishes a newer snapshot
+     */
+    @Test
+    public void testRefreshPublishesNewVersion() {
+        BitcoinPriceSnapshot first = priceSnapshotService.refresh();
+        BitcoinPriceSnapshot second = priceSnapshotService.refresh();
+
+        assertTrue(second.getVersion() > first.getVersion(), "Refresh should publish a newer version");
+        assertSame(second, priceSnapshotService.getSnapshot());
+    }
+}
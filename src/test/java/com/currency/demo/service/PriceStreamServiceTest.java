@@ -0,0 +1,302 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.BitcoinPriceSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "coindesk.stream.buffer-size=4")
+@ActiveProfiles("test")
+public class PriceStreamServiceTest {
+
+    @Autowired
+    private PriceStreamService priceStreamService;
+
+    @Autowired
+    private PriceSnapshotService priceSnapshotService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    /**
+     * Test a subscriber receives the current snapshot and then each update in order
+     */
+    @Test
+    public void testSubscriberReceivesSnapshotAndUpdates() throws Exception {
+        stubRate(50000.0);
+        priceSnapshotService.refresh();
+
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        priceStreamService.register(emitter, false);
+        stubRate(50001.0);
+        BitcoinPriceSnapshot updated = priceSnapshotService.refresh();
+
+        emitter.awaitFrames(2);
+        System.out.println(emitter.frames);
+        assertTrue(emitter.frames.get(0).contains("event:snapshot"), "First frame should be the snapshot");
+        assertTrue(emitter.frames.get(1).contains("id:" + updated.getVersion()), "Second frame should be the update");
+        assertTrue(emitter.frames.get(1).contains("50001"), "Update should carry the new rate");
+        emitter.complete();
+    }
+
+    /**
+     * Test a changes-only subscriber gets just the currencies that changed
+     */
+    @Test
+    public void testChangesOnlySubscriber() throws Exception {
+        stubRate(50000.0);
+        priceSnapshotService.refresh();
+
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        priceStreamService.register(emitter, true);
+        stubRate(50002.0);
+        priceSnapshotService.refresh();
+
+        emitter.awaitFrames(2);
+        String changes = emitter.frames.get(1);
+        System.out.println(changes);
+        assertTrue(changes.contains("event:changes"), "Update should be a changes event");
+        assertTrue(changes.contains("\"USD\""), "Changed currency should be included");
+        assertFalse(changes.contains("\"GBP\""), "Unchanged currency should be omitted");
+        emitter.complete();
+    }
+
+    /**
+     * Test a slow subscriber drops its oldest frames instead of buffering without bound
+     */
+    @Test
+    public void testSlowSubscriberDropsOldestFrames() throws Exception {
+        stubRate(50000.0);
+        priceSnapshotService.refresh();
+
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(release);
+        priceStreamService.register(emitter, false);
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS), "Snapshot frame should be in flight");
+        long droppedBefore = priceStreamService.getDroppedFrameCount();
+
+        BitcoinPriceSnapshot last = null;
+        for (int i = 1; i <= 10; i++) {
+            stubRate(50000.0 + i);
+            last = priceSnapshotService.refresh();
+        }
+        release.countDown();
+
+        // The blocked snapshot frame plus the 4 newest updates that fit in the buffer
+        emitter.awaitFrames(5);
+        Thread.sleep(100);
+        assertEquals(5, emitter.frames.size(), "Only the buffered frames should be delivered");
+        assertTrue(priceStreamService.getDroppedFrameCount() - droppedBefore >= 6, "Oldest frames should be dropped");
+        assertTrue(emitter.frames.get(4).contains("id:" + last.getVersion()), "Latest update must not be dropped");
+        emitter.complete();
+    }
+
+    /**
+     * An update published while a subscriber registers is not sent again after the snapshot
+     */
+    @Test
+    public void testSnapshotIsNotRepeated() throws Exception {
+        stubRate(50000.0);
+        BitcoinPriceSnapshot current = priceSnapshotService.refresh();
+
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        priceStreamService.register(emitter, false);
+        // The same version arriving as an update, as when it is published during registration
+        priceStreamService.onSnapshotPublished(new PriceSnapshotPublishedEvent(null, current));
+        stubRate(50003.0);
+        BitcoinPriceSnapshot updated = priceSnapshotService.refresh();
+
+        emitter.awaitFrames(2);
+        Thread.sleep(100);
+        assertEquals(2, emitter.frames.size(), "The snapshot version should be sent once");
+        assertTrue(emitter.frames.get(0).contains("event:snapshot"));
+        assertTrue(emitter.frames.get(1).contains("id:" + updated.getVersion()));
+        emitter.complete();
+    }
+
+    /**
+     * A client blocked on its write neither delays other clients nor keeps receiving updates
+     */
+    @Test
+    public void testStalledSubscriberIsEvicted() throws Exception {
+        stubRate(50000.0);
+        priceSnapshotService.refresh();
+        // Two sender threads and a short send timeout
+        PriceStreamService streamService = new PriceStreamService(priceSnapshotService, objectMapper, 4, 60000,
+                2, 16, 200);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            RecordingEmitter stalled = new RecordingEmitter(release);
+            streamService.register(stalled, false);
+            assertTrue(stalled.sending.await(5, TimeUnit.SECONDS), "Snapshot frame should be in flight");
+
+            RecordingEmitter fast = new RecordingEmitter(null);
+            streamService.register(fast, false);
+            fast.awaitFrames(1, 2000);
+
+            Thread.sleep(300);
+            BitcoinPriceSnapshot previous = priceSnapshotService.getCurrentSnapshot();
+            stubRate(50004.0);
+            BitcoinPriceSnapshot updated = priceSnapshotService.refresh();
+            streamService.onSnapshotPublished(new PriceSnapshotPublishedEvent(previous, updated));
+
+            fast.awaitFrames(2, 2000);
+            assertTrue(fast.frames.get(1).contains("id:" + updated.getVersion()));
+            assertEquals(1, streamService.getSubscriberCount(), "Stalled subscriber should be removed");
+            assertEquals(1, streamService.getEvictedSubscriberCount());
+
+            release.countDown();
+            Thread.sleep(100);
+            assertEquals(1, stalled.frames.size(), "Stalled subscriber should get nothing after its blocked write");
+        } finally {
+            streamService.shutdown();
+        }
+    }
+
+    /**
+     * A changes-only subscriber that falls behind gets one snapshot in place of its backlog, so no price move is lost
+     */
+    @Test
+    public void testSlowChangesOnlySubscriberIsResynchronized() throws Exception {
+        stubRate(50000.0);
+        priceSnapshotService.refresh();
+
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(release);
+        priceStreamService.register(emitter, true);
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS), "Snapshot frame should be in flight");
+
+        // GBP only moves in the first update, whose delta is part of the backlog that overflows
+        stubRates(50001.0, 40001.0);
+        priceSnapshotService.refresh();
+        BitcoinPriceSnapshot last = null;
+        for (int i = 2; i <= 10; i++) {
+            stubRates(50000.0 + i, 40001.0);
+            last = priceSnapshotService.refresh();
+        }
+        release.countDown();
+
+        emitter.awaitFrames(2);
+        Thread.sleep(100);
+        System.out.println(emitter.frames);
+        String latest = emitter.frames.get(emitter.frames.size() - 1);
+        assertTrue(latest.contains("id:" + last.getVersion()), "Latest update must be delivered");
+        assertTrue(latest.contains("50010"), "Latest update should carry the newest USD rate");
+        assertTrue(emitter.frames.stream().skip(1).anyMatch(frame -> frame.contains("event:snapshot")
+                        && frame.contains("40001")),
+                "The overflowed backlog should be replaced by a snapshot that includes the GBP move");
+        assertTrue(emitter.frames.size() <= 1 + 4, "Nothing beyond the buffer should be delivered");
+        emitter.complete();
+    }
+
+    /**
+     * Once every sender thread is blocked and the queue is full, further subscribers are turned away
+     * instead of starting more threads
+     */
+    @Test
+    public void testSenderThreadsAreBounded() throws Exception {
+        stubRate(50000.0);
+        priceSnapshotService.refresh();
+        // One sender thread and room for one waiting subscriber
+        PriceStreamService streamService = new PriceStreamService(priceSnapshotService, objectMapper, 4, 60000,
+                1, 1, 60000);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            RecordingEmitter stalled = new RecordingEmitter(release);
+            streamService.register(stalled, false);
+            assertTrue(stalled.sending.await(5, TimeUnit.SECONDS), "Snapshot frame should be in flight");
+
+            RecordingEmitter queued = new RecordingEmitter(null);
+            streamService.register(queued, false);
+            RecordingEmitter rejected = new RecordingEmitter(null);
+            streamService.register(rejected, false);
+
+            assertEquals(1, streamService.getRejectedSubscriberCount());
+            assertEquals(2, streamService.getSubscriberCount(), "The rejected subscriber should be removed");
+
+            release.countDown();
+            queued.awaitFrames(1);
+            assertTrue(rejected.frames.isEmpty());
+        } finally {
+            release.countDown();
+            streamService.shutdown();
+        }
+    }
+
+    private void stubRate(double usdRate) {
+        stubRates(usdRate, 40000.0);
+    }
+
+    private void stubRates(double usdRate, double gbpRate) {
+        Map<String, Object> data = new HashMap<>();
+        Map<String, Object> time = new HashMap<>();
+        time.put("updated", "Mar 29, 2025 11:53:00 UTC");
+        data.put("time", time);
+
+        Map<String, Object> bpi = new HashMap<>();
+        bpi.put("USD", Map.of("code", "USD", "rate_float", usdRate));
+        bpi.put("GBP", Map.of("code", "GBP", "rate_float", gbpRate));
+        data.put("bpi", bpi);
+
+        UpstreamStubs.respondWith(restTemplate, data);
+    }
+
+    /**
+     * Emitter that records frames as text, optionally blocking the first send until released
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+            sending.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StringBuilder frame = new StringBuilder();
+            items.forEach(item -> frame.append(item.getData()));
+            frames.add(frame.toString());
+        }
+
+        void awaitFrames(int count) throws InterruptedException {
+            awaitFrames(count, 5000);
+        }
+
+        void awaitFrames(int count, long timeoutMs) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMs;
+            while (frames.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(frames.size() >= count, "Expected " + count + " frames but got " + frames.size());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.CoindeskResponse;
+import com.currency.demo.model.PriceSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SharedPriceFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<SharedPriceFile> opened = new ArrayList<>();
+
+    @AfterEach
+    public void closeFiles() {
+        opened.forEach(SharedPriceFile::close);
+    }
+
+    /**
+     * A follower reads back exactly what the leader wrote, including nulls and non-ASCII text
+     */
+    @Test
+    public void testFollowerReadsWhatLeaderWrote() {
+        SharedPriceFile leader = open(SharedPriceFile.Role.LEADER);
+        SharedPriceFile follower = open(SharedPriceFile.Role.FOLLOWER);
+
+        CoindeskFetch fetch = fetch(57231.4983, "Mar 29, 2025 11:53:00 UTC");
+        fetch.data().setDisclaimer("Prix indicatif – 參考價格");
+        leader.write(fetch);
+
+        CoindeskFetch read = follower.read();
+        assertNotNull(read);
+        assertEquals(PriceSource.UPSTREAM, read.source());
+        assertEquals(fetch.fetchedAt(), read.fetchedAt());
+        assertEquals("Mar 29, 2025 11:53:00 UTC", read.data().getTime().getUpdated());
+        assertNull(read.data().getTime().getUpdatedISO());
+        assertEquals("Prix indicatif – 參考價格", read.data().getDisclaimer());
+        assertEquals(List.of("USD", "EUR"), new ArrayList<>(read.data().getBpi().keySet()));
+        CoindeskResponse.BPI usd = read.data().getBpi().get("USD");
+        assertEquals("USD", usd.getCode());
+        assertEquals("&#36;", usd.getSymbol());
+        assertEquals(57231.4983, usd.getRateFloat());
+        assertEquals(57231.4983 * 0.9, read.data().getBpi().get("EUR").getRateFloat());
+    }
+
+    /**
+     * Until the leader writes again, followers get the payload they already decoded
+     */
+    @Test
+    public void testFollowerDecodesOncePerWrite() {
+        SharedPriceFile leader = open(SharedPriceFile.Role.LEADER);
+        SharedPriceFile follower = open(SharedPriceFile.Role.FOLLOWER);
+
+        leader.write(fetch(1.0, "first"));
+        CoindeskFetch first = follower.read();
+        assertSame(first, follower.read());
+
+        leader.write(fetch(2.0, "second"));
+        CoindeskFetch second = follower.read();
+        assertNotSame(first, second);
+        assertEquals("second", second.data().getTime().getUpdated());
+    }
+
+    /**
+     * Nothing is read before the leader has created the file and written to it, and fallback data is not shared
+     */
+    @Test
+    public void testNothingSharedYet() {
+        SharedPriceFile follower = open(SharedPriceFile.Role.FOLLOWER);
+        assertNull(follower.read(), "No file yet");
+
+        SharedPriceFile leader = open(SharedPriceFile.Role.LEADER);
+        assertNull(follower.read(), "File created but never written");
+
+        CoindeskFetch fetch = fetch(1.0, "fallback");
+        leader.write(new CoindeskFetch(fetch.data(), PriceSource.LAST_KNOWN_GOOD, fetch.fetchedAt()));
+        assertNull(follower.read(), "Fallback data should not be shared");
+
+        assertNull(open(SharedPriceFile.Role.OFF).read());
+    }
+
+    /**
+     * A second leader on the same file is refused
+     */
+    @Test
+    public void testOneLeaderPerFile() {
+        open(SharedPriceFile.Role.LEADER);
+        assertThrows(IllegalStateException.class, () -> open(SharedPriceFile.Role.LEADER));
+    }
+
+    /**
+     * A restarted leader continues the sequence, so followers pick up its first write
+     */
+    @Test
+    public void testRestartedLeaderContinuesSequence() {
+        SharedPriceFile leader = open(SharedPriceFile.Role.LEADER);
+        SharedPriceFile follower = open(SharedPriceFile.Role.FOLLOWER);
+        leader.write(fetch(1.0, "before restart"));
+        assertEquals("before restart", follower.read().data().getTime().getUpdated());
+        leader.close();
+
+        open(SharedPriceFile.Role.LEADER).write(fetch(2.0, "after restart"));
+        assertEquals("after restart", follower.read().data().getTime().getUpdated());
+    }
+
+    /**
+     * While a write stays in progress (odd sequence) a follower gets nothing, even with an older copy,
+     * so its caller fetches from Coindesk instead of serving data that will never be refreshed
+     */
+    @Test
+    public void testWriteInProgressIsNotRead() throws Exception {
+        SharedPriceFile leader = open(SharedPriceFile.Role.LEADER);
+        SharedPriceFile follower = open(SharedPriceFile.Role.FOLLOWER);
+        leader.write(fetch(1.0, "complete"));
+        assertNotNull(follower.read());
+
+        try (FileChannel channel = FileChannel.open(file(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, SharedPriceFile.HEADER_SIZE);
+            mapped.order(ByteOrder.nativeOrder());
+            long sequence = mapped.getLong(SharedPriceFile.SEQUENCE_OFFSET);
+            mapped.putLong(SharedPriceFile.SEQUENCE_OFFSET, sequence + 1);
+            mapped.putInt(SharedPriceFile.LENGTH_OFFSET, Integer.MAX_VALUE);
+        }
+
+        assertNull(follower.read(), "A follower with a previous copy gets nothing");
+        assertNull(open(SharedPriceFile.Role.FOLLOWER).read(), "A follower with no copy yet gets nothing");
+
+        leader.write(fetch(2.0, "next"));
+        assertEquals("next", follower.read().data().getTime().getUpdated(), "The next write is read again");
+    }
+
+    /**
+     * Followers reading while the leader rewrites the file never see a mix of two writes
+     */
+    @Test
+    public void testConcurrentReadsAreNeverTorn() throws Exception {
+        SharedPriceFile leader = open(SharedPriceFile.Role.LEADER);
+        leader.write(fetch(0, "0"));
+        int readers = 3;
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                // One mapping per follower, as separate processes would have
+                SharedPriceFile follower = open(SharedPriceFile.Role.FOLLOWER);
+                results.add(executor.submit(() -> {
+                    int reads = 0;
+                    while (writing.get()) {
+                        CoindeskFetch read = follower.read();
+                        double rate = read.data().getBpi().get("USD").getRateFloat();
+                        assertEquals(String.valueOf((long) rate), read.data().getTime().getUpdated());
+                        assertEquals(rate * 0.9, read.data().getBpi().get("EUR").getRateFloat());
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+            // Payload lengths vary with the number of digits, so a torn read would also misparse
+            for (int i = 1; i <= 20000; i++) {
+                leader.write(fetch(i, String.valueOf(i)));
+            }
+            writing.set(false);
+            for (Future<Integer> result : results) {
+                assertTrue(result.get() > 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SharedPriceFile open(SharedPriceFile.Role role) {
+        SharedPriceFile sharedPriceFile = new SharedPriceFile(role, file(), 4096);
+        opened.add(sharedPriceFile);
+        return sharedPriceFile;
+    }
+
+    private Path file() {
+        return tempDir.resolve("prices.bin");
+    }
+
+    private static CoindeskFetch fetch(double usdRate, String updated) {
+        Map<String, CoindeskResponse.BPI> bpi = new LinkedHashMap<>();
+        bpi.put("USD", new CoindeskResponse.BPI("USD", "&#36;", String.valueOf(usdRate), "United States Dollar", usdRate));
+        bpi.put("EUR", new CoindeskResponse.BPI("EUR", "&euro;", null, "Euro", usdRate * 0.9));
+        CoindeskResponse data = new CoindeskResponse();
+        data.setTime(new CoindeskResponse.Time(updated, null, null));
+        data.setChartName("Bitcoin");
+        data.setBpi(bpi);
+        return new CoindeskFetch(data, PriceSource.UPSTREAM, Instant.parse("2025-03-29T11:53:00.123456789Z"));
+    }
+}
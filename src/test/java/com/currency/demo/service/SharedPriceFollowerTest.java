@@ -0,0 +1,133 @@
+package com.currency.demo.service;
+
+import com.currency.demo.model.BitcoinPriceSnapshot;
+import com.currency.demo.model.CoindeskResponse;
+import com.currency.demo.model.PriceSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * A follower instance takes its prices from the shared file written by a leader on the same host.
+ * The leader here is a SharedPriceFile opened by the test, standing in for the other JVM.
+ */
+@SpringBootTest(properties = {
+        "coindesk.shared-snapshot.role=follower",
+        "coindesk.shared-snapshot.path=" + SharedPriceFollowerTest.SHARED_FILE
+})
+@ActiveProfiles("test")
+public class SharedPriceFollowerTest {
+
+    static final String SHARED_FILE = "target/shared-price-follower-test.bin";
+
+    @Autowired
+    private PriceSnapshotService priceSnapshotService;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    private SharedPriceFile leader;
+
+    @BeforeAll
+    public static void removeSharedFile() throws Exception {
+        // Only between runs: the follower keeps its mapping, so the file must not be replaced under it
+        Files.deleteIfExists(Path.of(SHARED_FILE));
+    }
+
+    @BeforeEach
+    public void setup() {
+        leader = new SharedPriceFile(SharedPriceFile.Role.LEADER, Path.of(SHARED_FILE), 65536);
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("time", Map.of("updated", "Mar 29, 2025 12:00:00 UTC"));
+        Map<String, Object> usd = new HashMap<>();
+        usd.put("code", "USD");
+        usd.put("rate_float", 1000.0);
+        data.put("bpi", Map.of("USD", usd));
+        UpstreamStubs.respondWith(restTemplate, data);
+    }
+
+    @AfterEach
+    public void closeLeader() {
+        leader.close();
+    }
+
+    /**
+     * Fresh shared data is served without calling Coindesk
+     */
+    @Test
+    public void testFollowerUsesSharedData() {
+        leader.write(sharedFetch(57231.4983, Instant.now()));
+
+        BitcoinPriceSnapshot snapshot = priceSnapshotService.refresh();
+
+        verifyNoInteractions(restTemplate);
+        assertEquals(PriceSource.UPSTREAM, snapshot.getSource());
+        assertEquals(57231.4983, snapshot.getTransformedData().getQuote("USD").rate());
+        assertEquals(57231.4983, snapshot.getOriginalData().getBpi().get("USD").getRateFloat());
+    }
+
+    /**
+     * When the leader has stopped updating the file, the follower fetches from Coindesk itself
+     */
+    @Test
+    public void testFollowerFetchesWhenSharedDataIsStale() {
+        leader.write(sharedFetch(57231.4983, Instant.now().minus(Duration.ofHours(1))));
+
+        BitcoinPriceSnapshot snapshot = priceSnapshotService.refresh();
+
+        verify(restTemplate, atLeastOnce()).execute(any(), any(), any(), any());
+        assertEquals(1000.0, snapshot.getTransformedData().getQuote("USD").rate());
+    }
+
+    /**
+     * When the leader died mid-write, the follower stops waiting for the write and fetches from Coindesk itself
+     */
+    @Test
+    public void testFollowerFetchesWhenLeaderDiedMidWrite() throws Exception {
+        leader.write(sharedFetch(57231.4983, Instant.now()));
+        assertEquals(57231.4983, priceSnapshotService.refresh().getTransformedData().getQuote("USD").rate());
+
+        try (FileChannel channel = FileChannel.open(Path.of(SHARED_FILE), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, SharedPriceFile.HEADER_SIZE);
+            mapped.order(ByteOrder.nativeOrder());
+            mapped.putLong(SharedPriceFile.SEQUENCE_OFFSET, mapped.getLong(SharedPriceFile.SEQUENCE_OFFSET) + 1);
+        }
+
+        BitcoinPriceSnapshot snapshot = priceSnapshotService.refresh();
+
+        verify(restTemplate, atLeastOnce()).execute(any(), any(), any(), any());
+        assertEquals(1000.0, snapshot.getTransformedData().getQuote("USD").rate());
+    }
+
+    private static CoindeskFetch sharedFetch(double usdRate, Instant fetchedAt) {
+        Map<String, CoindeskResponse.BPI> bpi = new LinkedHashMap<>();
+        bpi.put("USD", new CoindeskResponse.BPI("USD", "&#36;", null, "United States Dollar", usdRate));
+        CoindeskResponse data = new CoindeskResponse();
+        data.setTime(new CoindeskResponse.Time("Mar 29, 2025 11:53:00 UTC", null, null));
+        data.setBpi(bpi);
+        return new CoindeskFetch(data, PriceSource.UPSTREAM, fetchedAt);
+    }
+}
@@ -0,0 +1,126 @@
+package com.currency.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    /**
+     * Concurrent callers for the same key share a single loader execution
+     */
+    @Test
+    public void testConcurrentCallsAreCoalesced() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.execute("coindesk", () -> {
+                loads.incrementAndGet();
+                awaitQuietly(release);
+                return "price";
+            })));
+            waitUntil(() -> singleFlight.getInFlightCount() == 1);
+
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("coindesk", () -> {
+                    loads.incrementAndGet();
+                    return "duplicate";
+                })));
+            }
+            waitUntil(() -> singleFlight.getCoalescedCount() == callers - 1);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("price", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get(), "Loader should run only once");
+        assertEquals(1, singleFlight.getExecutionCount());
+        assertEquals(callers - 1, singleFlight.getCoalescedCount());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    /**
+     * Different keys are loaded independently
+     */
+    @Test
+    public void testDifferentKeysAreNotCoalesced() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        assertEquals("USD", singleFlight.execute("USD", () -> "USD"));
+        assertEquals("EUR", singleFlight.execute("EUR", () -> "EUR"));
+
+        assertEquals(2, singleFlight.getExecutionCount());
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    /**
+     * A failed load is rethrown and does not block later calls
+     */
+    @Test
+    public void testFailureIsPropagatedAndCleared() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("coindesk", () -> {
+            throw new IllegalStateException("API unreachable");
+        }));
+
+        assertEquals(0, singleFlight.getInFlightCount());
+        assertEquals("price", singleFlight.execute("coindesk", () -> "price"));
+    }
+
+    /**
+     * Asynchronous callers share the pending future until it completes
+     */
+    @Test
+    public void testAsyncCallsShareFuture() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.executeAsync("coindesk", () -> upstream);
+        CompletableFuture<String> second = singleFlight.executeAsync("coindesk", () -> CompletableFuture.completedFuture("duplicate"));
+        assertSame(first, second);
+        assertEquals(1, singleFlight.getCoalescedCount());
+
+        upstream.complete("price");
+        assertEquals("price", second.get(5, TimeUnit.SECONDS));
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met in time");
+            }
+            Thread.sleep(1);
+        }
+    }
+}
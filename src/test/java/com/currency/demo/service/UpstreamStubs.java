@@ -0,0 +1,38 @@
+package com.currency.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stubs a mocked RestTemplate so upstream calls return the given payload as a JSON body.
+ * The body still goes through the real streaming parser.
+ */
+public final class UpstreamStubs {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private UpstreamStubs() {
+    }
+
+    public static void respondWith(RestTemplate restTemplate, Object payload) {
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), any(), any())).thenAnswer(invocation -> {
+            ResponseExtractor<?> extractor = invocation.getArgument(3);
+            byte[] body = objectMapper.writeValueAsBytes(payload);
+            return extractor.extractData(new MockClientHttpResponse(body, HttpStatus.OK));
+        });
+    }
+
+    public static void failWith(RestTemplate restTemplate, RuntimeException failure) {
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), any(), any())).thenThrow(failure);
+    }
+}